@@ -2,59 +2,109 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         WebClient.Builder builder,
+                         ResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .baseUrl(serverUrl + API_PREFIX)
                         .build()
         );
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> getByStateAndUserId(long userId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<byte[]>> getByStateAndUserId(long userId,
+                                                            String state,
+                                                            Integer from,
+                                                            Integer size,
+                                                            @Nullable String cursor) {
+        return get(statePath("", cursor), userId, stateParameters(state, from, size, cursor));
     }
 
 
-    public ResponseEntity<Object> saveBooking(long userId, RequestBookingDto requestDto) {
-        return post("", userId, requestDto);
+    public Mono<ResponseEntity<byte[]>> saveBooking(long userId, RequestBookingDto requestDto) {
+        return responseCache.evictAfter(post("", userId, requestDto), "/items/" + requestDto.getItemId());
     }
 
-    public ResponseEntity<Object> getBookingById(long userId, Long bookingId) {
+    public Mono<ResponseEntity<byte[]>> saveBookings(long userId, List<RequestBookingDto> requestDtos) {
+        String[] itemPaths = requestDtos.stream()
+                .map(requestDto -> "/items/" + requestDto.getItemId())
+                .distinct()
+                .toArray(String[]::new);
+        return responseCache.evictAfter(post("/batch", userId, requestDtos), itemPaths);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getBookingById(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> updateBookingStatus(long userId, Long bookingId, Boolean isApproved) {
+    public Mono<ResponseEntity<byte[]>> updateBookingStatus(long userId, Long bookingId, Boolean isApproved) {
         Map<String, Object> parameters = Map.of("approved", isApproved);
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        return responseCache.evictAfter(patch("/" + bookingId + "?approved={approved}", userId, parameters, null), "/items");
     }
 
-    public ResponseEntity<Object> getAllByStateAndUserId(long userId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<byte[]>> getAllByStateAndUserId(long userId,
+                                                               String state,
+                                                               Integer from,
+                                                               Integer size,
+                                                               @Nullable String cursor) {
+        return get(statePath("/owner", cursor), userId, stateParameters(state, from, size, cursor));
+    }
+
+    public Mono<ResponseEntity<byte[]>> getSummaryByBookerId(long userId) {
+        return get("/summary", userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getSummaryByOwnerId(long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    public Mono<ResponseEntity<StreamingResponseBody>> exportByBookerId(long userId) {
+        return getStream("/export", userId, MediaType.APPLICATION_NDJSON);
+    }
+
+    public Mono<ResponseEntity<StreamingResponseBody>> exportByOwnerId(long userId) {
+        return getStream("/owner/export", userId, MediaType.APPLICATION_NDJSON);
+    }
+
+    private static String statePath(String path, @Nullable String cursor) {
+        String statePath = path + "?state={state}&from={from}&size={size}";
+        return cursor != null ? statePath + "&cursor={cursor}" : statePath;
+    }
+
+    private static Map<String, Object> stateParameters(String state,
+                                                       Integer from,
+                                                       Integer size,
+                                                       @Nullable String cursor) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("state", state);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 }
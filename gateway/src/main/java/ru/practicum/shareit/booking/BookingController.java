@@ -3,15 +3,22 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.validators.AvailableEnumValue;
+import ru.practicum.shareit.validators.PageSize;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
 
@@ -24,47 +31,82 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public Object getByStateAndUserId(
+    public Mono<ResponseEntity<byte[]>> getByStateAndUserId(
             @RequestHeader(REQUEST_HEADER_USER_ID) long userId,
             @RequestParam(name = "state", defaultValue = "ALL")
             @AvailableEnumValue(enumClass = State.class) String state,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-            @Positive @RequestParam(name = "size", defaultValue = "5") int size) {
+            @Positive @PageSize @RequestParam(name = "size", defaultValue = "5") int size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
         log.info("Get booking with state {}, userId={}", state, userId);
-        return bookingClient.getByStateAndUserId(userId, state, from, size);
+        return bookingClient.getByStateAndUserId(userId, state, from, size, cursor);
     }
 
     @PostMapping
-    public Object saveBooking(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
-                              @RequestBody @Valid RequestBookingDto requestDto) {
+    public Mono<ResponseEntity<byte[]>> saveBooking(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                                    @RequestBody @Valid RequestBookingDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.saveBooking(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<byte[]>> saveBookings(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                                     @RequestBody @NotEmpty @Size(max = 1000)
+                                                     List<@Valid RequestBookingDto> requestDtos) {
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        return bookingClient.saveBookings(userId, requestDtos);
+    }
+
     @GetMapping("/{bookingId}")
-    public Object getBookingById(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
-                                 @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<byte[]>> getBookingById(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                                       @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBookingById(userId, bookingId);
     }
 
     @PatchMapping("/{bookingId}")
-    public Object bookingDecision(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
-                                  @PathVariable long bookingId,
-                                  @RequestParam("approved") Boolean isApproved) {
+    public Mono<ResponseEntity<byte[]>> bookingDecision(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                                        @PathVariable long bookingId,
+                                                        @RequestParam("approved") Boolean isApproved) {
         log.info("Update status booking {}, userId={}, status={}", bookingId, userId, isApproved);
         return bookingClient.updateBookingStatus(userId, bookingId, isApproved);
     }
 
     @GetMapping("/owner")
-    public Object getAllByStateAndUserId(
+    public Mono<ResponseEntity<byte[]>> getAllByStateAndUserId(
             @RequestHeader(REQUEST_HEADER_USER_ID) long userId,
             @RequestParam(name = "state", defaultValue = "ALL")
             @AvailableEnumValue(enumClass = State.class) String state,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-            @Positive @RequestParam(name = "size", defaultValue = "5") int size) {
+            @Positive @PageSize @RequestParam(name = "size", defaultValue = "5") int size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
         log.info("Get all booking with state {}, userId={}", state, userId);
-        return bookingClient.getAllByStateAndUserId(userId, state, from, size);
+        return bookingClient.getAllByStateAndUserId(userId, state, from, size, cursor);
     }
-}
 
+    @GetMapping("/summary")
+    public Mono<ResponseEntity<byte[]>> getSummaryByBookerId(@RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+        log.info("Get bookings summary, userId={}", userId);
+        return bookingClient.getSummaryByBookerId(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public Mono<ResponseEntity<byte[]>> getSummaryByOwnerId(@RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+        log.info("Get owner bookings summary, userId={}", userId);
+        return bookingClient.getSummaryByOwnerId(userId);
+    }
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> exportByBookerId(
+            @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+        log.info("Export bookings, userId={}", userId);
+        return bookingClient.exportByBookerId(userId);
+    }
+
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> exportByOwnerId(
+            @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+        log.info("Export owner bookings, userId={}", userId);
+        return bookingClient.exportByOwnerId(userId);
+    }
+}
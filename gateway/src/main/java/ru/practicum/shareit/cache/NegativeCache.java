@@ -0,0 +1,63 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@EnableConfigurationProperties(NegativeCacheProperties.class)
+public class NegativeCache {
+    public static final String USER_NOT_FOUND = "Пользователь с id %d не найден";
+    public static final String ITEM_NOT_FOUND = "Вещь с id %d не найдена";
+
+    private final Cache<Long, Boolean> missingUsers;
+    private final Cache<Long, Boolean> missingItems;
+    private final boolean enabled;
+
+    public NegativeCache(NegativeCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.missingUsers = build(properties);
+        this.missingItems = build(properties);
+        CaffeineCacheMetrics.monitor(meterRegistry, missingUsers, "gateway.negative.users");
+        CaffeineCacheMetrics.monitor(meterRegistry, missingItems, "gateway.negative.items");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isMissingUser(long userId) {
+        return missingUsers.getIfPresent(userId) != null;
+    }
+
+    public boolean isMissingItem(long itemId) {
+        return missingItems.getIfPresent(itemId) != null;
+    }
+
+    public void userMissing(long userId) {
+        missingUsers.put(userId, Boolean.TRUE);
+    }
+
+    public void itemMissing(long itemId) {
+        missingItems.put(itemId, Boolean.TRUE);
+    }
+
+    public void forgetUsers() {
+        missingUsers.invalidateAll();
+    }
+
+    public void forgetItems() {
+        missingItems.invalidateAll();
+    }
+
+    private static Cache<Long, Boolean> build(NegativeCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exception.model.ErrorResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@RequiredArgsConstructor
+public class NegativeCacheFilter extends OncePerRequestFilter {
+    private static final Pattern USER_PATH = Pattern.compile("^/users/(\\d+)$");
+    private static final Pattern ITEM_PATH = Pattern.compile("^/items/(\\d+)(/.*)?$");
+
+    private final NegativeCache negativeCache;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !negativeCache.isEnabled() || request.getRequestURI().equals("/items/search");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Long userId = parseId(request.getHeader(REQUEST_HEADER_USER_ID));
+        if (userId == null) {
+            Matcher userPath = USER_PATH.matcher(request.getRequestURI());
+            userId = userPath.matches() ? parseId(userPath.group(1)) : null;
+        }
+        if (userId != null && negativeCache.isMissingUser(userId)) {
+            reject(response, String.format(NegativeCache.USER_NOT_FOUND, userId));
+            return;
+        }
+        Matcher itemPath = ITEM_PATH.matcher(request.getRequestURI());
+        Long itemId = itemPath.matches() ? parseId(itemPath.group(1)) : null;
+        if (itemId != null && negativeCache.isMissingItem(itemId)) {
+            reject(response, String.format(NegativeCache.ITEM_NOT_FOUND, itemId));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static Long parseId(String id) {
+        if (id == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        log.debug("Получен статус 404 из негативного кэша {}", message);
+        response.setStatus(HttpStatus.NOT_FOUND.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+}
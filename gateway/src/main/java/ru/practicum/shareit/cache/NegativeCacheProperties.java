@@ -0,0 +1,14 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-gateway.negative-cache")
+public class NegativeCacheProperties {
+    private boolean enabled = true;
+    private long maximumSize = 100_000;
+    private Duration ttl = Duration.ofSeconds(30);
+}
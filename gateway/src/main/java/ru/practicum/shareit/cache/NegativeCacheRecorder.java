@@ -0,0 +1,95 @@
+package ru.practicum.shareit.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
+
+@Component
+@RequiredArgsConstructor
+public class NegativeCacheRecorder implements ExchangeFilterFunction {
+    private static final Pattern MISSING_USER = idPattern(NegativeCache.USER_NOT_FOUND);
+    private static final Pattern MISSING_ITEM = idPattern(NegativeCache.ITEM_NOT_FOUND);
+
+    private final NegativeCache negativeCache;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!negativeCache.isEnabled()) {
+            return next.exchange(request);
+        }
+        String path = request.url().getPath();
+        return next.exchange(request).flatMap(response -> {
+            if (response.rawStatusCode() == HttpStatus.NOT_FOUND.value()) {
+                return response.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(body -> {
+                            record(request, path, body);
+                            return response.mutate().body(body).build();
+                        });
+            }
+            if (HttpMethod.POST.equals(request.method()) && HttpStatus.valueOf(response.rawStatusCode()).is2xxSuccessful()) {
+                forgetCreated(path);
+            }
+            return Mono.just(response);
+        });
+    }
+
+    private void record(ClientRequest request, String path, String body) {
+        String error = errorOf(body);
+        Matcher user = MISSING_USER.matcher(error);
+        if (user.matches()) {
+            String userId = user.group(1);
+            if (userId.equals(request.headers().getFirst(REQUEST_HEADER_USER_ID)) || path.equals("/users/" + userId)) {
+                negativeCache.userMissing(Long.parseLong(userId));
+            }
+            return;
+        }
+        Matcher item = MISSING_ITEM.matcher(error);
+        if (item.matches()) {
+            String itemId = item.group(1);
+            if (path.equals("/items/" + itemId) || path.startsWith("/items/" + itemId + "/")) {
+                negativeCache.itemMissing(Long.parseLong(itemId));
+            }
+        }
+    }
+
+    private void forgetCreated(String path) {
+        if (path.equals("/users")) {
+            negativeCache.forgetUsers();
+        } else if (path.equals("/items") || path.equals("/items/import")) {
+            negativeCache.forgetItems();
+        }
+    }
+
+    /**
+     * Сервер не отдаёт тип и id отсутствующей сущности отдельно, поэтому они берутся из текста ошибки.
+     * Формат один на фильтр и рекордер, а тесты сервера фиксируют тот же текст с его стороны.
+     */
+    private static Pattern idPattern(String format) {
+        int id = format.indexOf("%d");
+        return Pattern.compile(Pattern.quote(format.substring(0, id)) + "(\\d+)"
+                + Pattern.quote(format.substring(id + 2)));
+    }
+
+    private String errorOf(String body) {
+        try {
+            return objectMapper.readTree(body).path("error").asText("");
+        } catch (JsonProcessingException e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.util.InboundHeaders;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+@Component
+@EnableConfigurationProperties(RequestCoalescerProperties.class)
+public class RequestCoalescer {
+    private static final String REQUESTS_METRIC = "gateway.coalescing.requests";
+
+    private final ConcurrentMap<Key, Mono<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int maximumInFlight;
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter bypassed;
+
+    public RequestCoalescer(RequestCoalescerProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.maximumInFlight = properties.getMaximumInFlight();
+        this.leaders = meterRegistry.counter(REQUESTS_METRIC, "result", "leader");
+        this.coalesced = meterRegistry.counter(REQUESTS_METRIC, "result", "coalesced");
+        this.bypassed = meterRegistry.counter(REQUESTS_METRIC, "result", "bypassed");
+        meterRegistry.gaugeMapSize("gateway.coalescing.in-flight", List.of(), inFlight);
+    }
+
+    public Mono<ResponseEntity<byte[]>> coalesce(String path,
+                                                 long userId,
+                                                 Map<String, Object> parameters,
+                                                 Supplier<Mono<ResponseEntity<byte[]>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        if (inFlight.size() >= maximumInFlight) {
+            bypassed.increment();
+            return loader.get();
+        }
+        Key key = new Key(path, userId, parameters, InboundHeaders.get(HttpHeaders.IF_NONE_MATCH));
+        Mono<ResponseEntity<byte[]>> call = Mono.defer(loader).share();
+        Mono<ResponseEntity<byte[]>> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        leaders.increment();
+        return call.doFinally(signal -> inFlight.remove(key, call));
+    }
+
+    public void forget(String... paths) {
+        inFlight.keySet().removeIf(key -> ResponseCache.matches(key.getPath(), paths));
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    @Value
+    private static class Key {
+        String path;
+        long userId;
+        Map<String, Object> parameters;
+        String ifNoneMatch;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-gateway.coalescing")
+public class RequestCoalescerProperties {
+    private boolean enabled = true;
+    private int maximumInFlight = 10_000;
+}
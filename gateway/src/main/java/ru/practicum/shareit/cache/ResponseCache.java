@@ -0,0 +1,114 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.util.InboundHeaders;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache {
+    private final Cache<Key, ResponseEntity<byte[]>> cache;
+    private final AtomicLong writes = new AtomicLong();
+    private final boolean enabled;
+    private final RequestCoalescer coalescer;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry, RequestCoalescer coalescer) {
+        this.enabled = properties.isEnabled();
+        this.coalescer = coalescer;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.responses");
+    }
+
+    public Mono<ResponseEntity<byte[]>> get(String path,
+                                            long userId,
+                                            Map<String, Object> parameters,
+                                            Supplier<Mono<ResponseEntity<byte[]>>> loader) {
+        if (!enabled) {
+            return coalescer.coalesce(path, userId, parameters, loader);
+        }
+        Key key = new Key(path, userId, parameters);
+        ResponseEntity<byte[]> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(notModifiedOr(cached));
+        }
+        long version = writes.get();
+        return coalescer.coalesce(path, userId, parameters, loader).doOnNext(response -> {
+            if (response.getStatusCode().is2xxSuccessful() && writes.get() == version) {
+                cache.put(key, response);
+                if (writes.get() != version) {
+                    cache.invalidate(key);
+                }
+            }
+        });
+    }
+
+    private static ResponseEntity<byte[]> notModifiedOr(ResponseEntity<byte[]> cached) {
+        String etag = cached.getHeaders().getETag();
+        if (etag != null && etag.equals(InboundHeaders.get(HttpHeaders.IF_NONE_MATCH))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return cached;
+    }
+
+    public Mono<ResponseEntity<byte[]>> evictAfter(Mono<ResponseEntity<byte[]>> write, String... paths) {
+        return beforeEmitting(write, () -> evict(paths));
+    }
+
+    public Mono<ResponseEntity<byte[]>> evictAllAfter(Mono<ResponseEntity<byte[]>> write) {
+        return beforeEmitting(write, () -> {
+            writes.incrementAndGet();
+            cache.invalidateAll();
+            coalescer.forgetAll();
+        });
+    }
+
+    /**
+     * Ответ на запись уходит клиенту в onNext, поэтому кэш чистится до него:
+     * следующий GET того же клиента не должен увидеть состояние до записи.
+     */
+    private static Mono<ResponseEntity<byte[]>> beforeEmitting(Mono<ResponseEntity<byte[]>> write,
+                                                               Runnable eviction) {
+        return write.doOnNext(response -> eviction.run())
+                .doOnError(error -> eviction.run())
+                .doOnCancel(eviction);
+    }
+
+    private void evict(String... paths) {
+        writes.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> matches(key.getPath(), paths));
+        coalescer.forget(paths);
+    }
+
+    static boolean matches(String keyPath, String... paths) {
+        for (String path : paths) {
+            if (keyPath.equals(path) || keyPath.startsWith(path + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Value
+    private static class Key {
+        String path;
+        long userId;
+        Map<String, Object> parameters;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AimdLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AimdLimiter(ResilienceProperties.Limiter properties, MeterRegistry meterRegistry) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.limit = new AtomicInteger(properties.getInitialLimit());
+        meterRegistry.gauge("gateway.upstream.limit", limit);
+        meterRegistry.gauge("gateway.upstream.in-flight", inFlight);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess() {
+        int current = inFlight.getAndDecrement();
+        limit.updateAndGet(value -> current * 2 >= value ? Math.min(maxLimit, value + 1) : value);
+    }
+
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        limit.updateAndGet(value -> Math.max(minLimit, (int) (value * backoffRatio)));
+    }
+
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+}
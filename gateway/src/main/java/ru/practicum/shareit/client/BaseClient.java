@@ -1,104 +1,162 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
-import org.springframework.http.HttpEntity;
+import javax.validation.ValidationException;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.util.InboundHeaders;
 
 import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            HttpHeaders.CONNECTION,
+            "Keep-Alive",
+            HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.TE,
+            HttpHeaders.TRAILER,
+            HttpHeaders.UPGRADE,
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.DATE);
+    private static final int STREAM_PREFETCH = 16;
+
+    protected final WebClient client;
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    public BaseClient(WebClient client) {
+        this.client = client;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<byte[]>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<byte[]>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<byte[]>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<byte[]>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<byte[]>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<byte[]>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method,
-                                                          String path,
-                                                          Long userId,
-                                                          @Nullable Map<String, Object> parameters,
-                                                          @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(shareitServerResponse);
+    protected Mono<ResponseEntity<byte[]>> postStream(String path,
+                                                      long userId,
+                                                      MediaType contentType,
+                                                      Publisher<DataBuffer> body) {
+        return client.post()
+                .uri(path)
+                .headers(headers -> {
+                    headers.addAll(defaultHeaders(userId));
+                    headers.setContentType(contentType);
+                })
+                .body(BodyInserters.fromDataBuffers(body))
+                .exchangeToMono(BaseClient::prepareGatewayResponse)
+                .onErrorMap(WebClientRequestException.class,
+                        e -> e.getCause() instanceof ValidationException ? e.getCause() : e);
+    }
+
+    protected Mono<ResponseEntity<StreamingResponseBody>> getStream(String path, long userId, MediaType accept) {
+        return client.get()
+                .uri(path)
+                .headers(headers -> {
+                    headers.addAll(defaultHeaders(userId));
+                    headers.setAccept(List.of(accept, MediaType.APPLICATION_JSON));
+                })
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.addAll(response.getHeaders());
+                    HOP_BY_HOP_HEADERS.forEach(headers::remove);
+                    Flux<DataBuffer> body = response.getBody() != null ? response.getBody() : Flux.empty();
+                    return ResponseEntity.status(response.getStatusCodeValue())
+                            .headers(headers)
+                            .body(out -> copy(body, out));
+                });
+    }
+
+    private <T> Mono<ResponseEntity<byte[]>> makeAndSendRequest(HttpMethod method,
+                                                                String path,
+                                                                Long userId,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body) {
+        WebClient.RequestBodySpec request = client.method(method)
+                .uri(path, parameters != null ? parameters : Collections.emptyMap())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+
+        return requestWithBody.exchangeToMono(BaseClient::prepareGatewayResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -108,20 +166,33 @@ public class BaseClient {
         if (userId != null) {
             headers.set(REQUEST_HEADER_USER_ID, String.valueOf(userId));
         }
+        String ifNoneMatch = InboundHeaders.get(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static void copy(Flux<DataBuffer> body, OutputStream out) throws IOException {
+        try (Stream<DataBuffer> buffers = body.toStream(STREAM_PREFETCH)) {
+            for (Iterator<DataBuffer> iterator = buffers.iterator(); iterator.hasNext(); ) {
+                try (InputStream in = iterator.next().asInputStream(true)) {
+                    in.transferTo(out);
+                }
+                out.flush();
+            }
         }
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static Mono<ResponseEntity<byte[]>> prepareGatewayResponse(ClientResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.headers().asHttpHeaders());
+        HOP_BY_HOP_HEADERS.forEach(headers::remove);
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.rawStatusCode()).headers(headers);
 
-        return responseBuilder.build();
+        return response.bodyToMono(byte[].class)
+                .map(responseBuilder::body)
+                .defaultIfEmpty(responseBuilder.build());
     }
-}
\ No newline at end of file
+}
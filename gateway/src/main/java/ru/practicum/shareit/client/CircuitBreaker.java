@@ -0,0 +1,120 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long probeTimeoutNanos;
+    private final MeterRegistry meterRegistry;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicLong probeStartedAt = new AtomicLong();
+
+    public CircuitBreaker(ResilienceProperties.Breaker properties, MeterRegistry meterRegistry) {
+        this.failureThreshold = properties.getFailureThreshold();
+        this.openNanos = properties.getOpenDuration().toNanos();
+        this.probeTimeoutNanos = properties.getProbeTimeout().toNanos();
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("gateway.upstream.breaker.state", state, value -> value.get().ordinal());
+    }
+
+    public Permit tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return Permit.CALL;
+        }
+        long now = System.nanoTime();
+        if (current == State.HALF_OPEN) {
+            // Пробный запрос так и не отчитался: отдаём его место следующему
+            long probeStarted = probeStartedAt.get();
+            if (now - probeStarted > probeTimeoutNanos && probeStartedAt.compareAndSet(probeStarted, now)) {
+                return Permit.PROBE;
+            }
+            return Permit.rejected(TimeUnit.NANOSECONDS.toSeconds(probeTimeoutNanos) + 1);
+        }
+        long remaining = openedAt.get() + openNanos - now;
+        if (remaining <= 0) {
+            probeStartedAt.set(now);
+            if (transition(State.OPEN, State.HALF_OPEN)) {
+                return Permit.PROBE;
+            }
+        }
+        return Permit.rejected(TimeUnit.NANOSECONDS.toSeconds(Math.max(remaining, 0)) + 1);
+    }
+
+    public Duration getProbeTimeout() {
+        return Duration.ofNanos(probeTimeoutNanos);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        transition(State.HALF_OPEN, State.CLOSED);
+    }
+
+    public void onFailure() {
+        State current = state.get();
+        if (current == State.OPEN) {
+            return;
+        }
+        if (current == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(System.nanoTime());
+            if (transition(current, State.OPEN)) {
+                consecutiveFailures.set(0);
+            }
+        }
+    }
+
+    /**
+     * Запрос завершился без вердикта о состоянии upstream: отменён или отклонён до отправки.
+     * Если это был пробный запрос, предохранитель снова открывается на полный срок.
+     */
+    public void onReleased(Permit permit) {
+        if (permit.isProbe()) {
+            openedAt.set(System.nanoTime());
+            transition(State.HALF_OPEN, State.OPEN);
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        log.info("Состояние предохранителя upstream: {} -> {}", from, to);
+        meterRegistry.counter("gateway.upstream.breaker.transitions", "from", from.name(), "to", to.name())
+                .increment();
+        return true;
+    }
+
+    @Value
+    public static class Permit {
+        static final Permit CALL = new Permit(true, false, 0);
+        static final Permit PROBE = new Permit(true, true, 0);
+
+        boolean granted;
+        boolean probe;
+        long retryAfterSeconds;
+
+        static Permit rejected(long retryAfterSeconds) {
+            return new Permit(false, false, retryAfterSeconds);
+        }
+    }
+}
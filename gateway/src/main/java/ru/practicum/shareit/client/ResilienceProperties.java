@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.resilience")
+public class ResilienceProperties {
+    private Limiter limiter = new Limiter();
+    private Breaker breaker = new Breaker();
+    private Retry retry = new Retry();
+
+    @Data
+    public static class Limiter {
+        private int initialLimit = 100;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.9;
+        private Duration latencyThreshold = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Breaker {
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(10);
+        private Duration probeTimeout = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Retry {
+        private int maxRetries = 2;
+        private Duration minBackoff = Duration.ofMillis(100);
+        private double jitter = 0.5;
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.retry.Retry;
+import ru.practicum.shareit.exception.UpstreamUnavailableException;
+
+import javax.validation.ValidationException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class UpstreamGuard implements ExchangeFilterFunction {
+    private static final String REJECTED_METRIC = "gateway.upstream.rejected";
+    private static final Set<Integer> OVERLOAD_STATUSES = Set.of(
+            HttpStatus.BAD_GATEWAY.value(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            HttpStatus.GATEWAY_TIMEOUT.value());
+
+    private final AimdLimiter limiter;
+    private final CircuitBreaker breaker;
+    private final long latencyThresholdNanos;
+    private final Retry retry;
+    private final Counter rejectedByLimit;
+    private final Counter rejectedByBreaker;
+
+    public UpstreamGuard(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.limiter = new AimdLimiter(properties.getLimiter(), meterRegistry);
+        this.breaker = new CircuitBreaker(properties.getBreaker(), meterRegistry);
+        this.latencyThresholdNanos = properties.getLimiter().getLatencyThreshold().toNanos();
+        Counter retries = meterRegistry.counter("gateway.upstream.retries");
+        this.retry = Retry.backoff(properties.getRetry().getMaxRetries(), properties.getRetry().getMinBackoff())
+                .jitter(properties.getRetry().getJitter())
+                .filter(error -> error instanceof WebClientRequestException
+                        && !(error.getCause() instanceof ValidationException))
+                .doBeforeRetry(signal -> retries.increment())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+        this.rejectedByLimit = meterRegistry.counter(REJECTED_METRIC, "reason", "limit");
+        this.rejectedByBreaker = meterRegistry.counter(REJECTED_METRIC, "reason", "breaker");
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        Mono<ClientResponse> exchange = Mono.defer(() -> guarded(request, next));
+        return HttpMethod.GET.equals(request.method()) ? exchange.retryWhen(retry) : exchange;
+    }
+
+    private Mono<ClientResponse> guarded(ClientRequest request, ExchangeFunction next) {
+        // Лимит проверяется первым, чтобы отказ по лимиту не занимал место пробного запроса
+        if (!limiter.tryAcquire()) {
+            rejectedByLimit.increment();
+            return Mono.error(new UpstreamUnavailableException("Сервер перегружен, повторите запрос позже", 1));
+        }
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+        if (!permit.isGranted()) {
+            limiter.onIgnored();
+            rejectedByBreaker.increment();
+            return Mono.error(new UpstreamUnavailableException("Сервер временно недоступен",
+                    permit.getRetryAfterSeconds()));
+        }
+        long start = System.nanoTime();
+        AtomicBoolean completed = new AtomicBoolean();
+        Mono<ClientResponse> exchange = next.exchange(request);
+        if (permit.isProbe()) {
+            exchange = exchange.timeout(breaker.getProbeTimeout(), Mono.error(() ->
+                    new UpstreamUnavailableException("Сервер не ответил на пробный запрос", 1)));
+        }
+        return exchange
+                .doOnNext(response -> {
+                    completed.set(true);
+                    if (OVERLOAD_STATUSES.contains(response.rawStatusCode())) {
+                        limiter.onDropped();
+                        breaker.onFailure();
+                    } else {
+                        onResponseTime(System.nanoTime() - start);
+                        breaker.onSuccess();
+                    }
+                })
+                .doOnError(error -> {
+                    completed.set(true);
+                    if (error.getCause() instanceof ValidationException) {
+                        limiter.onIgnored();
+                        breaker.onReleased(permit);
+                    } else {
+                        limiter.onDropped();
+                        breaker.onFailure();
+                    }
+                })
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL && completed.compareAndSet(false, true)) {
+                        limiter.onIgnored();
+                        breaker.onReleased(permit);
+                    }
+                });
+    }
+
+    private void onResponseTime(long nanos) {
+        if (nanos > latencyThresholdNanos) {
+            limiter.onDropped();
+        } else {
+            limiter.onSuccess();
+        }
+    }
+}
@@ -2,11 +2,15 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -17,34 +21,46 @@ import java.util.Map;
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      WebClient.Builder builder,
+                      ResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .baseUrl(serverUrl + API_PREFIX)
                         .build()
         );
+        this.responseCache = responseCache;
+    }
+
+    public Mono<ResponseEntity<byte[]>> saveItem(long userId, ItemDto itemDto) {
+        return responseCache.evictAfter(post("", userId, itemDto), "/requests");
+    }
+
+    public Mono<ResponseEntity<byte[]>> updateById(long userId, long itemId, ItemDto itemDto) {
+        return responseCache.evictAfter(patch("/" + itemId, userId, itemDto), API_PREFIX + "/" + itemId, "/requests");
     }
 
-    public ResponseEntity<Object> saveItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<byte[]>> getById(long userId, long itemId) {
+        return responseCache.get(API_PREFIX + "/" + itemId, userId, Map.of(), () -> get("/" + itemId, userId));
     }
 
-    public ResponseEntity<Object> updateById(long userId, long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public Mono<ResponseEntity<byte[]>> importItems(long userId, Publisher<DataBuffer> rows) {
+        return responseCache.evictAfter(postStream("/import", userId, MediaType.APPLICATION_NDJSON, rows), "/requests");
     }
 
-    public ResponseEntity<Object> getById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<StreamingResponseBody>> exportItems(long userId) {
+        return getStream("/export", userId, MediaType.APPLICATION_NDJSON);
     }
 
-    public ResponseEntity<Object> getByUserId(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> getByUserId(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of("from", from, "size", size);
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchByText(long userId, String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> searchByText(long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -52,7 +68,7 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public Mono<ResponseEntity<byte[]>> addComment(long userId, long itemId, CommentDto commentDto) {
+        return responseCache.evictAfter(post("/" + itemId + "/comment", userId, commentDto), API_PREFIX + "/" + itemId);
     }
 }
@@ -2,17 +2,24 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.ndjson.NdjsonReader;
 import ru.practicum.shareit.validators.EntityValidator.*;
+import ru.practicum.shareit.validators.PageSize;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
-import java.util.Collections;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
 
@@ -23,53 +30,69 @@ import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
 @Validated
 public class ItemController {
     private final ItemClient itemClient;
+    private final NdjsonReader ndjsonReader;
 
     @PostMapping
-    public Object add(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
-                      @Validated(OnCreate.class) @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<byte[]>> add(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                            @Validated(OnCreate.class) @RequestBody ItemDto itemDto) {
         log.info("Creating item {}, userId={}", itemDto, userId);
         return itemClient.saveItem(userId, itemDto);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<byte[]>> importItems(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                                    InputStream body) {
+        log.info("Import items, userId={}", userId);
+        return itemClient.importItems(userId, ndjsonReader.readValidated(body, ItemDto.class, OnCreate.class));
+    }
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> exportItems(@RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+        log.info("Export items with ownerId={}", userId);
+        return itemClient.exportItems(userId);
+    }
+
     @PatchMapping("/{itemId}")
-    public Object updateById(@RequestBody ItemDto itemDto,
-                             @PathVariable long itemId,
-                             @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+    public Mono<ResponseEntity<byte[]>> updateById(@RequestBody ItemDto itemDto,
+                                                   @PathVariable long itemId,
+                                                   @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
         log.info("Update item with itemId={}, userId={}", itemId, userId);
         return itemClient.updateById(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public Object getById(@PathVariable long itemId,
-                          @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+    public Mono<ResponseEntity<byte[]>> getById(@PathVariable long itemId,
+                                                @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
         log.info("Get item with itemId={}, userId={}", itemId, userId);
         return itemClient.getById(userId, itemId);
     }
 
     @GetMapping
-    public Object getByUser(@RequestParam(value = "from", defaultValue = "0") @PositiveOrZero int from,
-                            @RequestParam(value = "size", defaultValue = "5") @Positive int size,
-                            @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+    public Mono<ResponseEntity<byte[]>> getByUser(@RequestParam(value = "from", defaultValue = "0") @PositiveOrZero int from,
+                                                  @RequestParam(value = "size", defaultValue = "5") @Positive @PageSize int size,
+                                                  @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
         log.info("Get items with ownerId={}", userId);
         return itemClient.getByUserId(userId, from, size);
     }
 
     @GetMapping("/search")
-    public Object searchByText(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
-                               @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero int from,
-                               @RequestParam(value = "size", defaultValue = "5") @Positive int size,
-                               @RequestParam("text") String text) {
+    public Mono<ResponseEntity<byte[]>> searchByText(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                                     @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero int from,
+                                                     @RequestParam(value = "size", defaultValue = "5") @Positive @PageSize int size,
+                                                     @RequestParam("text") String text) {
         log.info("Search items with text, userId={}", userId);
         if (text.isBlank()) {
-            return Collections.emptyList();
+            return Mono.just(ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("[]".getBytes(StandardCharsets.UTF_8)));
         }
         return itemClient.searchByText(userId, text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public Object addComment(@RequestBody @Valid CommentDto commentDto,
-                             @PathVariable long itemId,
-                             @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+    public Mono<ResponseEntity<byte[]>> addComment(@RequestBody @Valid CommentDto commentDto,
+                                                   @PathVariable long itemId,
+                                                   @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
         log.info("Creating comment {} to item with itemId={}, userId={}", commentDto, itemId, userId);
         return itemClient.addComment(userId, itemId, commentDto);
     }
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.ndjson;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class NdjsonReader {
+    private static final int ROWS_PER_CHUNK = 500;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    public <T> Flux<DataBuffer> readValidated(InputStream body, Class<T> type, Class<?>... groups) {
+        return Flux.<T, Row<T>>generate(() -> new Row<>(objectMapper.readerFor(type).readValues(body)),
+                        (row, sink) -> {
+                            if (row.next()) {
+                                sink.next(validate(row, groups));
+                            } else {
+                                sink.complete();
+                            }
+                            return row;
+                        },
+                        Row::close)
+                .buffer(ROWS_PER_CHUNK)
+                .map(this::write)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private <T> T validate(Row<T> row, Class<?>... groups) {
+        Set<ConstraintViolation<T>> violations = validator.validate(row.value, groups);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(String.format("Строка %d: %s", row.number, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .collect(Collectors.joining(", "))));
+        }
+        return row.value;
+    }
+
+    private DataBuffer write(Iterable<?> values) {
+        DataBuffer buffer = bufferFactory.allocateBuffer();
+        try {
+            for (Object value : values) {
+                buffer.write(objectMapper.writeValueAsBytes(value));
+                buffer.write((byte) '\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer;
+    }
+
+    private static class Row<T> {
+        private final MappingIterator<T> values;
+        private long number;
+        private T value;
+
+        Row(MappingIterator<T> values) {
+            this.values = values;
+        }
+
+        boolean next() {
+            try {
+                if (!values.hasNextValue()) {
+                    return false;
+                }
+                number++;
+                value = values.nextValue();
+                return true;
+            } catch (IOException e) {
+                throw new ValidationException(String.format("Строка %d: некорректный JSON", number + 1), e);
+            }
+        }
+
+        void close() {
+            try {
+                values.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
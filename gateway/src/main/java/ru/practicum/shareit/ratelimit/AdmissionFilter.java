@@ -0,0 +1,149 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exception.model.ErrorResponse;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionFilter extends OncePerRequestFilter {
+    private static final String REJECTED_METRIC = "gateway.rate-limit.rejected";
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Semaphore concurrentRequests;
+    private final Counter rejectedByQuota;
+    private final Counter rejectedByConcurrency;
+
+    public AdmissionFilter(RateLimitProperties properties,
+                           RateLimiter rateLimiter,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.enabled = properties.isEnabled();
+        this.concurrentRequests = new Semaphore(properties.getMaximumConcurrentRequests());
+        this.rejectedByQuota = meterRegistry.counter(REJECTED_METRIC, "reason", "quota");
+        this.rejectedByConcurrency = meterRegistry.counter(REJECTED_METRIC, "reason", "concurrency");
+        meterRegistry.gauge("gateway.rate-limit.concurrent-requests", concurrentRequests,
+                semaphore -> properties.getMaximumConcurrentRequests() - semaphore.availablePermits());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Long userId = parseUserId(request.getHeader(REQUEST_HEADER_USER_ID));
+        if (userId != null) {
+            long wait = rateLimiter.tryAcquire(userId, request.getMethod(), request.getRequestURI());
+            if (wait > 0) {
+                rejectedByQuota.increment();
+                reject(response, TimeUnit.NANOSECONDS.toSeconds(wait) + 1,
+                        String.format("Превышен лимит запросов для пользователя с id %d", userId));
+                return;
+            }
+        }
+        if (!concurrentRequests.tryAcquire()) {
+            rejectedByConcurrency.increment();
+            reject(response, 1, "Сервис перегружен, повторите запрос позже");
+            return;
+        }
+        Runnable release = releaseOnce();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private Runnable releaseOnce() {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                concurrentRequests.release();
+            }
+        };
+    }
+
+    private static Long parseUserId(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(userId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        log.debug("Получен статус 429 {}", message);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+
+    private static class ReleasingListener implements AsyncListener {
+        private final Runnable release;
+
+        ReleasingListener(Runnable release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
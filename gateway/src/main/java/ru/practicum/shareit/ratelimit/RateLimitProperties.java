@@ -0,0 +1,27 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int maximumConcurrentRequests = 500;
+    private long maximumBuckets = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Quota defaultQuota = new Quota();
+    private Map<String, Quota> quotas = new LinkedHashMap<>();
+
+    @Data
+    public static class Quota {
+        private String method;
+        private String path = "/**";
+        private int capacity = 100;
+        private double refillPerSecond = 50;
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import ru.practicum.shareit.ratelimit.RateLimitProperties.Quota;
+
+import java.util.Map;
+
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimiter {
+    private static final String DEFAULT_QUOTA = "default";
+
+    private final Cache<Key, TokenBucket> buckets;
+    private final Map<String, Quota> quotas;
+    private final Quota defaultQuota;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.quotas = properties.getQuotas();
+        this.defaultQuota = properties.getDefaultQuota();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumBuckets())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "gateway.rate-limit.buckets");
+    }
+
+    public long tryAcquire(long userId, String method, String path) {
+        long now = System.nanoTime();
+        String quotaName = DEFAULT_QUOTA;
+        Quota quota = defaultQuota;
+        for (Map.Entry<String, Quota> entry : quotas.entrySet()) {
+            Quota candidate = entry.getValue();
+            if ((candidate.getMethod() == null || candidate.getMethod().equalsIgnoreCase(method))
+                    && pathMatcher.match(candidate.getPath(), path)) {
+                quotaName = entry.getKey();
+                quota = candidate;
+                break;
+            }
+        }
+        Quota matched = quota;
+        return buckets.get(new Key(userId, quotaName),
+                        key -> new TokenBucket(matched.getCapacity(), matched.getRefillPerSecond(), now))
+                .tryConsume(now);
+    }
+
+    @Value
+    private static class Key {
+        long userId;
+        String quota;
+    }
+}
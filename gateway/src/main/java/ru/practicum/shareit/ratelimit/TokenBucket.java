@@ -0,0 +1,30 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucket {
+    private final long emissionInterval;
+    private final long burst;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        this.burst = emissionInterval * capacity;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    public long tryConsume(long now) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + emissionInterval;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
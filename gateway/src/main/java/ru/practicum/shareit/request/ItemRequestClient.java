@@ -2,11 +2,12 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.cache.RequestCoalescer;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -16,30 +17,40 @@ import java.util.Map;
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
+    private final ResponseCache responseCache;
+    private final RequestCoalescer coalescer;
+
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                             WebClient.Builder builder,
+                             ResponseCache responseCache,
+                             RequestCoalescer coalescer) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .baseUrl(serverUrl + API_PREFIX)
                         .build()
         );
+        this.responseCache = responseCache;
+        this.coalescer = coalescer;
     }
 
-    public ResponseEntity<Object> saveRequest(long userId, ItemRequestDto itemRequestDto) {
-        return post("", userId, itemRequestDto);
+    public Mono<ResponseEntity<byte[]>> saveRequest(long userId, ItemRequestDto itemRequestDto) {
+        return responseCache.evictAfter(post("", userId, itemRequestDto), API_PREFIX);
     }
 
-    public ResponseEntity<Object> getById(long userId, long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<byte[]>> getById(long userId, long requestId) {
+        return responseCache.get(API_PREFIX + "/" + requestId, userId, Map.of(), () -> get("/" + requestId, userId));
     }
 
-    public ResponseEntity<Object> getAll(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> getAll(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of("from", from, "size", size);
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return responseCache.get(API_PREFIX + "/all",
+                userId,
+                parameters,
+                () -> get("/all?from={from}&size={size}", userId, parameters));
     }
 
-    public ResponseEntity<Object> getByUserId(long userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<byte[]>> getByUserId(long userId) {
+        return coalescer.coalesce(API_PREFIX, userId, Map.of(), () -> get("", userId));
     }
 }
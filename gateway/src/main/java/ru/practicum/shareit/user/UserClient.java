@@ -2,11 +2,11 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -14,33 +14,37 @@ import ru.practicum.shareit.user.dto.UserDto;
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl,
+                      WebClient.Builder builder,
+                      ResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .baseUrl(serverUrl + API_PREFIX)
                         .build()
         );
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> saveUser(UserDto userDto) {
+    public Mono<ResponseEntity<byte[]>> saveUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> update(long userId, UserDto userDto) {
-        return patch("/" + userId, userDto);
+    public Mono<ResponseEntity<byte[]>> update(long userId, UserDto userDto) {
+        return responseCache.evictAllAfter(patch("/" + userId, userDto));
     }
 
-    public ResponseEntity<Object> getById(long userId) {
+    public Mono<ResponseEntity<byte[]>> getById(long userId) {
         return get("/" + userId);
     }
 
-    public void deleteById(long userId) {
-        delete("/" + userId);
+    public Mono<ResponseEntity<byte[]>> deleteById(long userId) {
+        return responseCache.evictAllAfter(delete("/" + userId));
     }
 
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<byte[]>> getAll() {
         return get("");
     }
 }
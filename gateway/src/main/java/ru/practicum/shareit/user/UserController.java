@@ -2,8 +2,10 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validators.EntityValidator.*;
 
@@ -16,37 +18,34 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public Object add(@Validated(OnCreate.class) @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<byte[]>> add(@Validated(OnCreate.class) @RequestBody UserDto userDto) {
         log.info("Creating user {}", userDto);
         return userClient.saveUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public Object update(@Validated(OnUpdate.class) @RequestBody UserDto userDto,
-                          @PathVariable long userId) {
+    public Mono<ResponseEntity<byte[]>> update(@Validated(OnUpdate.class) @RequestBody UserDto userDto,
+                                               @PathVariable long userId) {
         log.info("Update user with userId={}", userId);
         return userClient.update(userId, userDto);
     }
 
     @GetMapping("/{userId}")
-    public Object getById(@PathVariable long userId) {
+    public Mono<ResponseEntity<byte[]>> getById(@PathVariable long userId) {
         log.info("Get user with userId={}", userId);
         return userClient.getById(userId);
     }
 
     @DeleteMapping("/{userId}")
-    public Object delete(@PathVariable long userId) {
+    public Mono<String> delete(@PathVariable long userId) {
         log.info("Deleting user with userId={}", userId);
-        try {
-            userClient.deleteById(userId);
-            return "Deletion complete";
-        } catch (Exception e) {
-            return "Deletion error";
-        }
+        return userClient.deleteById(userId)
+                .map(response -> "Deletion complete")
+                .onErrorReturn("Deletion error");
     }
 
     @GetMapping
-    public Object getAll() {
+    public Mono<ResponseEntity<byte[]>> getAll() {
         log.info("Get all users");
         return userClient.getAll();
     }
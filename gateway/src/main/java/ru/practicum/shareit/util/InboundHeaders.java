@@ -0,0 +1,20 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+public class InboundHeaders {
+    private InboundHeaders() {
+    }
+
+    @Nullable
+    public static String get(String name) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) attributes).getRequest().getHeader(name);
+        }
+        return null;
+    }
+}
@@ -2,18 +2,18 @@ package ru.practicum.shareit.validators;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
-import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class AvailableEnumValueValidator implements ConstraintValidator<AvailableEnumValue, String> {
-    private List<String> acceptedValues;
+    private Set<String> acceptedValues;
 
     @Override
     public void initialize(AvailableEnumValue annotation) {
-        acceptedValues = Stream.of(annotation.enumClass().getEnumConstants())
+        acceptedValues = Set.copyOf(Stream.of(annotation.enumClass().getEnumConstants())
                 .map(Enum::name)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.validators;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+public class PageSizeValidator implements ConstraintValidator<PageSize, Integer> {
+    private final int maxSize;
+
+    public PageSizeValidator(@Value("${shareit-gateway.paging.max-size:100}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public boolean isValid(Integer size, ConstraintValidatorContext context) {
+        if (size == null || size <= maxSize) {
+            return true;
+        }
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate("Page size must be less than or equal to " + maxSize)
+                .addConstraintViolation();
+        return false;
+    }
+}
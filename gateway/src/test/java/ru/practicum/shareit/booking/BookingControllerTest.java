@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.cache.NegativeCacheFilter;
+import ru.practicum.shareit.ratelimit.AdmissionFilter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
+
+@WebMvcTest(controllers = BookingController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                classes = {AdmissionFilter.class, NegativeCacheFilter.class}))
+public class BookingControllerTest {
+    @Autowired
+    private MockMvc mvc;
+    @MockBean
+    private BookingClient bookingClient;
+
+    @Test
+    void shouldRejectPageSizeAboveMaximum() throws Exception {
+        mvc.perform(get("/bookings").header(REQUEST_HEADER_USER_ID, 1).param("size", "101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Page size must be less than or equal to 100"));
+        mvc.perform(get("/bookings/owner").header(REQUEST_HEADER_USER_ID, 1).param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).getByStateAndUserId(anyLong(), anyString(), anyInt(), anyInt(), any());
+        verify(bookingClient, never()).getAllByStateAndUserId(anyLong(), anyString(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void shouldAcceptMaximumPageSize() throws Exception {
+        when(bookingClient.getByStateAndUserId(anyLong(), anyString(), anyInt(), anyInt(), any()))
+                .thenReturn(Mono.just(ResponseEntity.ok(new byte[0])));
+
+        mvc.perform(get("/bookings").header(REQUEST_HEADER_USER_ID, 1).param("size", "100"));
+
+        verify(bookingClient).getByStateAndUserId(eq(1L), eq("ALL"), eq(0), eq(100), any());
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
+
+public class NegativeCacheFilterTest {
+    private NegativeCache negativeCache;
+    private NegativeCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        negativeCache = new NegativeCache(new NegativeCacheProperties(), new SimpleMeterRegistry());
+        filter = new NegativeCacheFilter(negativeCache, new ObjectMapper());
+    }
+
+    @Test
+    void shouldRejectMissingRequester() throws Exception {
+        negativeCache.userMissing(5L);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("GET", "/bookings", 5L), response, chain);
+
+        assertThat(response.getStatus(), equalTo(HttpStatus.NOT_FOUND.value()));
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8),
+                equalTo("{\"error\":\"Пользователь с id 5 не найден\"}"));
+        assertThat(chain.getRequest(), nullValue());
+    }
+
+    @Test
+    void shouldRejectMissingUserFromPath() throws Exception {
+        negativeCache.userMissing(5L);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("GET", "/users/5", null), response, chain);
+
+        assertThat(response.getStatus(), equalTo(HttpStatus.NOT_FOUND.value()));
+        assertThat(chain.getRequest(), nullValue());
+    }
+
+    @Test
+    void shouldRejectMissingItemAndItsNestedPaths() throws Exception {
+        negativeCache.itemMissing(7L);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse item = new MockHttpServletResponse();
+        MockHttpServletResponse comment = new MockHttpServletResponse();
+
+        filter.doFilter(request("GET", "/items/7", 1L), item, chain);
+        filter.doFilter(request("POST", "/items/7/comment", 1L), comment, chain);
+
+        assertThat(item.getStatus(), equalTo(HttpStatus.NOT_FOUND.value()));
+        assertThat(item.getContentAsString(StandardCharsets.UTF_8),
+                equalTo("{\"error\":\"Вещь с id 7 не найдена\"}"));
+        assertThat(comment.getStatus(), equalTo(HttpStatus.NOT_FOUND.value()));
+        assertThat(chain.getRequest(), nullValue());
+    }
+
+    @Test
+    void shouldPassWhenNothingIsMissing() throws Exception {
+        negativeCache.userMissing(5L);
+        negativeCache.itemMissing(7L);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("GET", "/items/70", 1L), response, chain);
+
+        assertThat(response.getStatus(), equalTo(HttpStatus.OK.value()));
+        assertThat(chain.getRequest(), notNullValue());
+    }
+
+    @Test
+    void shouldSkipSearch() throws Exception {
+        negativeCache.userMissing(5L);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("GET", "/items/search", 5L), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest(), notNullValue());
+    }
+
+    @Test
+    void shouldSkipWhenDisabled() throws Exception {
+        NegativeCacheProperties properties = new NegativeCacheProperties();
+        properties.setEnabled(false);
+        negativeCache = new NegativeCache(properties, new SimpleMeterRegistry());
+        negativeCache.userMissing(5L);
+        filter = new NegativeCacheFilter(negativeCache, new ObjectMapper());
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("GET", "/users/5", 5L), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest(), notNullValue());
+    }
+
+    private static MockHttpServletRequest request(String method, String path, Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (userId != null) {
+            request.addHeader(REQUEST_HEADER_USER_ID, String.valueOf(userId));
+        }
+        return request;
+    }
+}
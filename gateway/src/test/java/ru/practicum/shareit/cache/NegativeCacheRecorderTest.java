@@ -0,0 +1,154 @@
+package ru.practicum.shareit.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
+
+public class NegativeCacheRecorderTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private NegativeCache negativeCache;
+    private NegativeCacheRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        negativeCache = new NegativeCache(new NegativeCacheProperties(), new SimpleMeterRegistry());
+        recorder = new NegativeCacheRecorder(negativeCache, new ObjectMapper());
+    }
+
+    @Test
+    void shouldRecordMissingRequester() {
+        exchange(HttpMethod.GET, "/items", 5L, notFound("Пользователь с id 5 не найден"));
+
+        assertThat(negativeCache.isMissingUser(5L), equalTo(true));
+    }
+
+    @Test
+    void shouldRecordMissingUserFromPath() {
+        exchange(HttpMethod.GET, "/users/5", null, notFound("Пользователь с id 5 не найден"));
+
+        assertThat(negativeCache.isMissingUser(5L), equalTo(true));
+    }
+
+    @Test
+    void shouldNotRecordUserOtherThanRequester() {
+        exchange(HttpMethod.GET, "/bookings", 1L, notFound("Пользователь с id 5 не найден"));
+
+        assertThat(negativeCache.isMissingUser(5L), equalTo(false));
+        assertThat(negativeCache.isMissingUser(1L), equalTo(false));
+    }
+
+    @Test
+    void shouldRecordMissingItemFromPath() {
+        exchange(HttpMethod.GET, "/items/7", 1L, notFound("Вещь с id 7 не найдена"));
+        exchange(HttpMethod.POST, "/items/8/comment", 1L, notFound("Вещь с id 8 не найдена"));
+
+        assertThat(negativeCache.isMissingItem(7L), equalTo(true));
+        assertThat(negativeCache.isMissingItem(8L), equalTo(true));
+    }
+
+    @Test
+    void shouldNotRecordItemOutsideItsPath() {
+        exchange(HttpMethod.POST, "/bookings", 1L, notFound("Вещь с id 7 не найдена"));
+        exchange(HttpMethod.GET, "/items/70", 1L, notFound("Вещь с id 7 не найдена"));
+
+        assertThat(negativeCache.isMissingItem(7L), equalTo(false));
+    }
+
+    @Test
+    void shouldNotRecordOtherNotFoundErrors() {
+        exchange(HttpMethod.GET, "/requests/5", 5L, notFound("Запрос с id 5 не найден"));
+        exchange(HttpMethod.GET, "/users/5", 5L, ClientResponse.create(HttpStatus.NOT_FOUND).build());
+
+        assertThat(negativeCache.isMissingUser(5L), equalTo(false));
+    }
+
+    @Test
+    void shouldPassNotFoundBodyThrough() {
+        ClientResponse response = exchange(HttpMethod.GET, "/users/5", null, notFound("Пользователь с id 5 не найден"));
+
+        assertThat(response.rawStatusCode(), equalTo(HttpStatus.NOT_FOUND.value()));
+        assertThat(response.bodyToMono(String.class).block(TIMEOUT),
+                equalTo("{\"error\":\"Пользователь с id 5 не найден\"}"));
+    }
+
+    @Test
+    void shouldForgetUsersAfterUserCreated() {
+        negativeCache.userMissing(5L);
+        negativeCache.itemMissing(7L);
+
+        exchange(HttpMethod.POST, "/users", null, created());
+
+        assertThat(negativeCache.isMissingUser(5L), equalTo(false));
+        assertThat(negativeCache.isMissingItem(7L), equalTo(true));
+    }
+
+    @Test
+    void shouldForgetItemsAfterItemCreatedOrImported() {
+        negativeCache.itemMissing(7L);
+        exchange(HttpMethod.POST, "/items", 1L, created());
+        assertThat(negativeCache.isMissingItem(7L), equalTo(false));
+
+        negativeCache.itemMissing(7L);
+        exchange(HttpMethod.POST, "/items/import", 1L, created());
+        assertThat(negativeCache.isMissingItem(7L), equalTo(false));
+    }
+
+    @Test
+    void shouldKeepEntriesAfterOtherWrites() {
+        negativeCache.userMissing(5L);
+        negativeCache.itemMissing(7L);
+
+        exchange(HttpMethod.POST, "/bookings", 1L, created());
+        exchange(HttpMethod.POST, "/users", null, ClientResponse.create(HttpStatus.CONFLICT).build());
+
+        assertThat(negativeCache.isMissingUser(5L), equalTo(true));
+        assertThat(negativeCache.isMissingItem(7L), equalTo(true));
+    }
+
+    @Test
+    void shouldNotRecordWhenDisabled() {
+        NegativeCacheProperties properties = new NegativeCacheProperties();
+        properties.setEnabled(false);
+        negativeCache = new NegativeCache(properties, new SimpleMeterRegistry());
+        recorder = new NegativeCacheRecorder(negativeCache, new ObjectMapper());
+
+        exchange(HttpMethod.GET, "/users/5", null, notFound("Пользователь с id 5 не найден"));
+
+        assertThat(negativeCache.isMissingUser(5L), equalTo(false));
+    }
+
+    private ClientResponse exchange(HttpMethod method, String path, Long userId, ClientResponse response) {
+        ClientRequest.Builder request = ClientRequest.create(method, URI.create("http://server" + path));
+        if (userId != null) {
+            request.header(REQUEST_HEADER_USER_ID, String.valueOf(userId));
+        }
+        return recorder.filter(request.build(), ignored -> Mono.just(response)).block(TIMEOUT);
+    }
+
+    private static ClientResponse notFound(String error) {
+        return ClientResponse.create(HttpStatus.NOT_FOUND)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"error\":\"" + error + "\"}")
+                .build();
+    }
+
+    private static ClientResponse created() {
+        return ClientResponse.create(HttpStatus.OK).build();
+    }
+}
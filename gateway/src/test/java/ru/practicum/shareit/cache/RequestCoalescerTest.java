@@ -0,0 +1,187 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+
+public class RequestCoalescerTest {
+    private static final String PATH = "/items/1";
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Sinks.One<ResponseEntity<byte[]>>> upstream = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescerProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RequestCoalescerProperties();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldMakeSingleUpstreamCallForConcurrentIdenticalGets() {
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+        List<String> bodies = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe(response -> bodies.add(body(response)));
+        }
+        upstream.get(0).tryEmitValue(ok("item"));
+
+        assertThat(loads.get(), equalTo(1));
+        assertThat(bodies.size(), equalTo(10));
+        assertThat(bodies, everyItem(equalTo("item")));
+        assertThat(requests("leader"), equalTo(1.0));
+        assertThat(requests("coalesced"), equalTo(9.0));
+    }
+
+    @Test
+    void shouldNotMergeDifferentUsersOrParameters() {
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+
+        coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe();
+        coalescer.coalesce(PATH, 2L, Map.of(), this::load).subscribe();
+        coalescer.coalesce(PATH, 1L, Map.of("from", 5), this::load).subscribe();
+
+        assertThat(loads.get(), equalTo(3));
+    }
+
+    @Test
+    void shouldNotMergeDifferentIfNoneMatch() {
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+
+        withIfNoneMatch("\"1\"");
+        coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe();
+        withIfNoneMatch("\"2\"");
+        coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe();
+        coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe();
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void shouldNotJoinCallStartedBeforeForget() {
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+        List<String> bodies = new ArrayList<>();
+        coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe(response -> bodies.add(body(response)));
+
+        coalescer.forget("/items/1");
+        coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe(response -> bodies.add(body(response)));
+        upstream.get(1).tryEmitValue(ok("after write"));
+        upstream.get(0).tryEmitValue(ok("before write"));
+
+        assertThat(loads.get(), equalTo(2));
+        assertThat(bodies, equalTo(List.of("after write", "before write")));
+    }
+
+    @Test
+    void shouldForgetNestedPathsOnly() {
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+        coalescer.coalesce(PATH + "/comment", 1L, Map.of(), this::load).subscribe();
+        coalescer.coalesce("/items/10", 1L, Map.of(), this::load).subscribe();
+
+        coalescer.forget(PATH);
+
+        assertThat(inFlight(), equalTo(1.0));
+    }
+
+    @Test
+    void shouldRemoveEntryAfterCompletion() {
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+        coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe();
+        assertThat(inFlight(), equalTo(1.0));
+
+        upstream.get(0).tryEmitValue(ok("item"));
+
+        assertThat(inFlight(), equalTo(0.0));
+        coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe();
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void shouldRemoveEntryAfterError() {
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+        coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe(response -> { }, error -> { });
+
+        upstream.get(0).tryEmitError(new IllegalStateException("ошибка"));
+
+        assertThat(inFlight(), equalTo(0.0));
+    }
+
+    @Test
+    void shouldRemoveEntryAfterCancellation() {
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+        Disposable leader = coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe();
+
+        leader.dispose();
+
+        assertThat(inFlight(), equalTo(0.0));
+        coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe();
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void shouldBypassWhenTooManyCallsInFlight() {
+        properties.setMaximumInFlight(1);
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+
+        coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe();
+        coalescer.coalesce(PATH, 1L, Map.of(), this::load).subscribe();
+
+        assertThat(loads.get(), equalTo(2));
+        assertThat(requests("bypassed"), equalTo(1.0));
+    }
+
+    private Mono<ResponseEntity<byte[]>> load() {
+        loads.incrementAndGet();
+        Sinks.One<ResponseEntity<byte[]>> sink = Sinks.one();
+        upstream.add(sink);
+        return sink.asMono();
+    }
+
+    private static void withIfNoneMatch(String etag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PATH);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static ResponseEntity<byte[]> ok(String body) {
+        return ResponseEntity.ok(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String body(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("gateway.coalescing.requests").tag("result", result).counter().count();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("gateway.coalescing.in-flight").gauge().value();
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ResponseCacheTest {
+    private static final String PATH = "/items/1";
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RequestCoalescer coalescer = new RequestCoalescer(new RequestCoalescerProperties(), meterRegistry);
+        responseCache = new ResponseCache(new ResponseCacheProperties(), meterRegistry, coalescer);
+    }
+
+    @Test
+    void shouldServeRepeatedGetFromCache() {
+        assertThat(get(PATH, "first"), equalTo("first"));
+        assertThat(get(PATH, "second"), equalTo("first"));
+        assertThat(loads.get(), equalTo(1));
+    }
+
+    @Test
+    void shouldKeyByUserAndParameters() {
+        get(PATH, "first");
+
+        assertThat(body(responseCache.get(PATH, 2L, Map.of(), () -> load("other user")).block(TIMEOUT)),
+                equalTo("other user"));
+        assertThat(body(responseCache.get(PATH, 1L, Map.of("from", 5), () -> load("other page")).block(TIMEOUT)),
+                equalTo("other page"));
+    }
+
+    @Test
+    void shouldNotCacheErrors() {
+        responseCache.get(PATH, 1L, Map.of(), () -> {
+            loads.incrementAndGet();
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(new byte[0]));
+        }).block(TIMEOUT);
+
+        assertThat(get(PATH, "found"), equalTo("found"));
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void shouldNotCacheResponseLoadedBeforeConcurrentWrite() {
+        Sinks.One<ResponseEntity<byte[]>> upstream = Sinks.one();
+        AtomicReference<String> staleBody = new AtomicReference<>();
+        responseCache.get(PATH, 1L, Map.of(), upstream::asMono)
+                .subscribe(response -> staleBody.set(body(response)));
+
+        responseCache.evictAfter(Mono.just(ok("written")), PATH).block(TIMEOUT);
+        upstream.tryEmitValue(ok("stale"));
+
+        assertThat(staleBody.get(), equalTo("stale"));
+        assertThat(get(PATH, "fresh"), equalTo("fresh"));
+    }
+
+    @Test
+    void shouldEvictCachedResponseBeforeWriteResponseIsEmitted() {
+        get(PATH, "before write");
+
+        String afterWrite = responseCache.evictAfter(Mono.just(ok("written")), PATH)
+                .map(written -> get(PATH, "after write"))
+                .block(TIMEOUT);
+
+        assertThat(afterWrite, equalTo("after write"));
+    }
+
+    @Test
+    void shouldNotJoinInFlightGetAfterWriteResponseIsEmitted() {
+        Sinks.One<ResponseEntity<byte[]>> upstream = Sinks.one();
+        responseCache.get(PATH, 1L, Map.of(), upstream::asMono).subscribe();
+
+        String afterWrite = responseCache.evictAfter(Mono.just(ok("written")), PATH)
+                .map(written -> get(PATH, "after write"))
+                .block(TIMEOUT);
+        upstream.tryEmitValue(ok("before write"));
+
+        assertThat(afterWrite, equalTo("after write"));
+        assertThat(get(PATH, "later"), equalTo("after write"));
+    }
+
+    @Test
+    void shouldEvictOnFailedWrite() {
+        get(PATH, "before write");
+
+        responseCache.evictAfter(Mono.error(new IllegalStateException("ошибка")), PATH)
+                .onErrorResume(e -> Mono.empty())
+                .block(TIMEOUT);
+
+        assertThat(get(PATH, "after write"), equalTo("after write"));
+    }
+
+    @Test
+    void shouldEvictNestedPathsOnly() {
+        get(PATH, "item");
+        get(PATH + "/comment", "comment");
+        get("/items/10", "other item");
+
+        responseCache.evictAfter(Mono.just(ok("written")), PATH).block(TIMEOUT);
+
+        assertThat(get(PATH, "new item"), equalTo("new item"));
+        assertThat(get(PATH + "/comment", "new comment"), equalTo("new comment"));
+        assertThat(get("/items/10", "new other item"), equalTo("other item"));
+    }
+
+    @Test
+    void shouldEvictEverythingAfterUserWrite() {
+        get(PATH, "item");
+        get("/requests/1", "request");
+
+        responseCache.evictAllAfter(Mono.just(ok("written"))).block(TIMEOUT);
+
+        assertThat(get(PATH, "new item"), equalTo("new item"));
+        assertThat(get("/requests/1", "new request"), equalTo("new request"));
+    }
+
+    private String get(String path, String body) {
+        return body(responseCache.get(path, 1L, Map.of(), () -> load(body)).block(TIMEOUT));
+    }
+
+    private Mono<ResponseEntity<byte[]>> load(String body) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return ok(body);
+        });
+    }
+
+    private static ResponseEntity<byte[]> ok(String body) {
+        return ResponseEntity.ok(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String body(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+}
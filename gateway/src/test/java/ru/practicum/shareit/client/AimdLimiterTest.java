@@ -0,0 +1,96 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class AimdLimiterTest {
+    private SimpleMeterRegistry meterRegistry;
+    private ResilienceProperties.Limiter properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ResilienceProperties.Limiter();
+        properties.setInitialLimit(2);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(3);
+        properties.setBackoffRatio(0.5);
+    }
+
+    @Test
+    void shouldRejectRequestsOverLimit() {
+        AimdLimiter limiter = new AimdLimiter(properties, meterRegistry);
+
+        assertThat(limiter.tryAcquire(), equalTo(true));
+        assertThat(limiter.tryAcquire(), equalTo(true));
+        assertThat(limiter.tryAcquire(), equalTo(false));
+        assertThat(inFlight(), equalTo(2.0));
+    }
+
+    @Test
+    void shouldRaiseLimitOnSuccessUnderLoadUpToMax() {
+        AimdLimiter limiter = new AimdLimiter(properties, meterRegistry);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        limiter.onSuccess();
+        assertThat(limit(), equalTo(3.0));
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.onSuccess();
+        assertThat(limit(), equalTo(3.0));
+    }
+
+    @Test
+    void shouldKeepLimitOnSuccessWithoutLoad() {
+        properties.setInitialLimit(3);
+        AimdLimiter limiter = new AimdLimiter(properties, meterRegistry);
+        limiter.tryAcquire();
+
+        limiter.onSuccess();
+
+        assertThat(limit(), equalTo(3.0));
+        assertThat(inFlight(), equalTo(0.0));
+    }
+
+    @Test
+    void shouldCutLimitOnDropNotBelowMin() {
+        properties.setInitialLimit(3);
+        properties.setMinLimit(1);
+        AimdLimiter limiter = new AimdLimiter(properties, meterRegistry);
+
+        limiter.tryAcquire();
+        limiter.onDropped();
+        assertThat(limit(), equalTo(1.0));
+
+        limiter.tryAcquire();
+        limiter.onDropped();
+        assertThat(limit(), equalTo(1.0));
+        assertThat(inFlight(), equalTo(0.0));
+    }
+
+    @Test
+    void shouldFreeSlotWithoutChangingLimitWhenIgnored() {
+        AimdLimiter limiter = new AimdLimiter(properties, meterRegistry);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        limiter.onIgnored();
+
+        assertThat(limit(), equalTo(2.0));
+        assertThat(limiter.tryAcquire(), equalTo(true));
+    }
+
+    private double limit() {
+        return meterRegistry.get("gateway.upstream.limit").gauge().value();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("gateway.upstream.in-flight").gauge().value();
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class CircuitBreakerTest {
+    private static final Duration OPEN_DURATION = Duration.ofMillis(50);
+    private static final Duration PROBE_TIMEOUT = Duration.ofMillis(100);
+
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        ResilienceProperties.Breaker properties = new ResilienceProperties.Breaker();
+        properties.setFailureThreshold(2);
+        properties.setOpenDuration(OPEN_DURATION);
+        properties.setProbeTimeout(PROBE_TIMEOUT);
+        breaker = new CircuitBreaker(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldOpenAfterConsecutiveFailures() {
+        breaker.onFailure();
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+
+        breaker.onFailure();
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(permit.isGranted(), equalTo(false));
+        assertThat(permit.getRetryAfterSeconds(), greaterThan(0L));
+    }
+
+    @Test
+    void shouldResetFailuresOnSuccess() {
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.tryAcquire().isGranted(), equalTo(true));
+    }
+
+    @Test
+    void shouldLetSingleProbeThroughAfterOpenDuration() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 10);
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        CircuitBreaker.Permit second = breaker.tryAcquire();
+
+        assertThat(probe.isProbe(), equalTo(true));
+        assertThat(second.isGranted(), equalTo(false));
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.HALF_OPEN));
+    }
+
+    @Test
+    void shouldCloseWhenProbeSucceeds() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 10);
+        breaker.tryAcquire();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.tryAcquire().isGranted(), equalTo(true));
+    }
+
+    @Test
+    void shouldReopenWhenProbeFails() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 10);
+        breaker.tryAcquire();
+
+        breaker.onFailure();
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(breaker.tryAcquire().isGranted(), equalTo(false));
+    }
+
+    @Test
+    void shouldReopenWhenProbeIsReleasedWithoutVerdict() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 10);
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+
+        breaker.onReleased(probe);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(breaker.tryAcquire().isGranted(), equalTo(false));
+        Thread.sleep(OPEN_DURATION.toMillis() + 10);
+        assertThat(breaker.tryAcquire().isProbe(), equalTo(true));
+    }
+
+    @Test
+    void shouldIgnoreReleaseOfOrdinaryCall() {
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+
+        breaker.onReleased(permit);
+
+        assertThat(permit.isProbe(), equalTo(false));
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    void shouldHandOverLostProbeAfterTimeout() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 10);
+        breaker.tryAcquire();
+        assertThat(breaker.tryAcquire().isGranted(), equalTo(false));
+
+        Thread.sleep(PROBE_TIMEOUT.toMillis() + 10);
+
+        assertThat(breaker.tryAcquire().isProbe(), equalTo(true));
+        assertThat(breaker.tryAcquire().isGranted(), equalTo(false));
+    }
+
+    private void open() {
+        breaker.onFailure();
+        breaker.onFailure();
+    }
+}
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import ru.practicum.shareit.exception.UpstreamUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Гоняет UpstreamGuard через настоящий WebClient против заглушки на Netty,
+ * которая умеет обрывать соединение, отвечать заданным статусом и задерживать ответ.
+ */
+public class UpstreamGuardTest {
+    private static final Duration OPEN_DURATION = Duration.ofMillis(200);
+    private static final Duration PROBE_TIMEOUT = Duration.ofMillis(300);
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger drops = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile Duration delay = Duration.ZERO;
+
+    private DisposableServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .handle((request, response) -> {
+                    requests.incrementAndGet();
+                    if (drops.getAndDecrement() > 0) {
+                        return response.withConnection(Connection::dispose).then();
+                    }
+                    return Mono.delay(delay)
+                            .then(response.status(status).sendString(Mono.just("{}")).then());
+                })
+                .bindNow();
+
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.getBreaker().setFailureThreshold(2);
+        properties.getBreaker().setOpenDuration(OPEN_DURATION);
+        properties.getBreaker().setProbeTimeout(PROBE_TIMEOUT);
+        properties.getRetry().setMaxRetries(2);
+        properties.getRetry().setMinBackoff(Duration.ofMillis(10));
+        meterRegistry = new SimpleMeterRegistry();
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + server.port())
+                .filter(new UpstreamGuard(properties, meterRegistry))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void shouldRetryGetAfterDroppedConnection() {
+        drops.set(1);
+
+        assertThat(get(), equalTo(200));
+        assertThat(requests.get(), equalTo(2));
+        assertThat(meterRegistry.get("gateway.upstream.retries").counter().count(), equalTo(1.0));
+    }
+
+    @Test
+    void shouldNotRetryPost() {
+        drops.set(1);
+
+        assertThrows(Exception.class, () -> webClient.post().uri("/items")
+                .exchangeToMono(response -> Mono.just(response.rawStatusCode()))
+                .block());
+        assertThat(requests.get(), equalTo(1));
+    }
+
+    @Test
+    void shouldOpenOnOverloadAndStopCallingUpstream() {
+        status = 503;
+
+        assertThat(get(), equalTo(503));
+        assertThat(get(), equalTo(503));
+        UpstreamUnavailableException e = assertThrows(UpstreamUnavailableException.class, this::get);
+
+        assertThat(requests.get(), equalTo(2));
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(e.getRetryAfterSeconds() > 0, equalTo(true));
+    }
+
+    @Test
+    void shouldCloseAfterSuccessfulProbe() throws InterruptedException {
+        open();
+        status = 200;
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+
+        assertThat(get(), equalTo(200));
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(get(), equalTo(200));
+    }
+
+    @Test
+    void shouldReopenWhenProbeFails() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+
+        assertThat(get(), equalTo(503));
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThrows(UpstreamUnavailableException.class, this::get);
+    }
+
+    @Test
+    void shouldTimeOutSlowProbeAndReopen() throws InterruptedException {
+        open();
+        status = 200;
+        delay = PROBE_TIMEOUT.multipliedBy(3);
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+
+        UpstreamUnavailableException e = assertThrows(UpstreamUnavailableException.class, this::get);
+
+        assertThat(e.getMessage(), equalTo("Сервер не ответил на пробный запрос"));
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.OPEN));
+
+        delay = Duration.ZERO;
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+        assertThat(get(), equalTo(200));
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    void shouldReopenWhenProbeIsCancelled() throws InterruptedException {
+        open();
+        status = 200;
+        delay = Duration.ofSeconds(5);
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+
+        Disposable probe = webClient.get().uri("/items")
+                .exchangeToMono(response -> Mono.just(response.rawStatusCode()))
+                .subscribe();
+        Thread.sleep(50);
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.HALF_OPEN));
+        probe.dispose();
+
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.OPEN));
+        delay = Duration.ZERO;
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+        assertThat(get(), equalTo(200));
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.CLOSED));
+    }
+
+    private void open() {
+        status = 503;
+        get();
+        get();
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.OPEN));
+    }
+
+    private Integer get() {
+        return webClient.get().uri("/items")
+                .exchangeToMono(response -> Mono.just(response.rawStatusCode()))
+                .block();
+    }
+
+    private CircuitBreaker.State breakerState() {
+        int ordinal = (int) meterRegistry.get("gateway.upstream.breaker.state").gauge().value();
+        return CircuitBreaker.State.values()[ordinal];
+    }
+}
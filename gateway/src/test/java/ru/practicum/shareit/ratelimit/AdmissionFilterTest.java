@@ -0,0 +1,161 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
+
+@ExtendWith(MockitoExtension.class)
+public class AdmissionFilterTest {
+    @Mock
+    private RateLimiter rateLimiter;
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaximumConcurrentRequests(1);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AdmissionFilter(properties, rateLimiter, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void shouldRejectOverQuotaWithRetryAfter() throws Exception {
+        when(rateLimiter.tryAcquire(anyLong(), anyString(), anyString()))
+                .thenReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(), response, chain);
+
+        assertThat(response.getStatus(), equalTo(HttpStatus.TOO_MANY_REQUESTS.value()));
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER), equalTo("2"));
+        assertThat(response.getContentAsString(), containsString("Превышен лимит запросов для пользователя с id 1"));
+        assertThat(chain.getRequest(), nullValue());
+        assertThat(rejected("quota"), equalTo(1.0));
+        assertThat(concurrentRequests(), equalTo(0.0));
+    }
+
+    @Test
+    void shouldRejectOverConcurrencyWithRetryAfter() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        filter.doFilter(request(), new MockHttpServletResponse(), (request, response) ->
+                filter.doFilter(request(), rejected, new MockFilterChain()));
+
+        assertThat(rejected.getStatus(), equalTo(HttpStatus.TOO_MANY_REQUESTS.value()));
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER), equalTo("1"));
+        assertThat(rejected("concurrency"), equalTo(1.0));
+        assertThat(concurrentRequests(), equalTo(0.0));
+    }
+
+    @Test
+    void shouldReleasePermitOnceAfterSyncCompletion() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(concurrentRequests(), equalTo(0.0));
+    }
+
+    @Test
+    void shouldReleasePermitOnceAfterSyncFailure() {
+        FilterChain failing = (request, response) -> {
+            throw new IllegalStateException("ошибка");
+        };
+
+        assertThrows(IllegalStateException.class, () ->
+                filter.doFilter(request(), new MockHttpServletResponse(), failing));
+
+        assertThat(concurrentRequests(), equalTo(0.0));
+    }
+
+    @Test
+    void shouldHoldPermitUntilAsyncComplete() throws Exception {
+        MockHttpServletRequest request = request();
+
+        filter.doFilter(request, new MockHttpServletResponse(), AdmissionFilterTest::startAsync);
+
+        assertThat(concurrentRequests(), equalTo(1.0));
+        asyncContext(request).complete();
+        assertThat(concurrentRequests(), equalTo(0.0));
+    }
+
+    @Test
+    void shouldReleasePermitOnceOnAsyncError() throws Exception {
+        MockHttpServletRequest request = request();
+        filter.doFilter(request, new MockHttpServletResponse(), AdmissionFilterTest::startAsync);
+        MockAsyncContext asyncContext = asyncContext(request);
+
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onError(new AsyncEvent(asyncContext, new IllegalStateException("ошибка")));
+        }
+        asyncContext.complete();
+
+        assertThat(concurrentRequests(), equalTo(0.0));
+    }
+
+    @Test
+    void shouldReleasePermitOnceOnAsyncTimeout() throws Exception {
+        MockHttpServletRequest request = request();
+        filter.doFilter(request, new MockHttpServletResponse(), AdmissionFilterTest::startAsync);
+        MockAsyncContext asyncContext = asyncContext(request);
+
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        assertThat(concurrentRequests(), equalTo(0.0));
+        asyncContext.complete();
+
+        assertThat(concurrentRequests(), equalTo(0.0));
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.addHeader(REQUEST_HEADER_USER_ID, "1");
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private static void startAsync(ServletRequest request, ServletResponse response) {
+        request.startAsync();
+    }
+
+    private static MockAsyncContext asyncContext(MockHttpServletRequest request) {
+        return (MockAsyncContext) request.getAsyncContext();
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("gateway.rate-limit.rejected").tag("reason", reason).counter().count();
+    }
+
+    private double concurrentRequests() {
+        return meterRegistry.get("gateway.rate-limit.concurrent-requests").gauge().value();
+    }
+}
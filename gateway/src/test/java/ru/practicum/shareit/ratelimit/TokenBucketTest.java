@@ -0,0 +1,62 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class TokenBucketTest {
+    private static final long START = TimeUnit.SECONDS.toNanos(100);
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void shouldAllowBurstOfCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 10, START);
+
+        assertThat(bucket.tryConsume(START), equalTo(0L));
+        assertThat(bucket.tryConsume(START), equalTo(0L));
+        assertThat(bucket.tryConsume(START), equalTo(0L));
+        assertThat(bucket.tryConsume(START), equalTo(INTERVAL));
+    }
+
+    @Test
+    void shouldReturnTimeUntilNextToken() {
+        TokenBucket bucket = new TokenBucket(1, 10, START);
+        bucket.tryConsume(START);
+
+        assertThat(bucket.tryConsume(START + INTERVAL / 4), equalTo(INTERVAL * 3 / 4));
+    }
+
+    @Test
+    void shouldNotChargeRejectedRequests() {
+        TokenBucket bucket = new TokenBucket(1, 10, START);
+        bucket.tryConsume(START);
+        bucket.tryConsume(START);
+        bucket.tryConsume(START);
+
+        assertThat(bucket.tryConsume(START + INTERVAL), equalTo(0L));
+    }
+
+    @Test
+    void shouldRefillOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(2, 10, START);
+        bucket.tryConsume(START);
+        bucket.tryConsume(START);
+
+        assertThat(bucket.tryConsume(START + INTERVAL - 1), equalTo(1L));
+        assertThat(bucket.tryConsume(START + INTERVAL), equalTo(0L));
+        assertThat(bucket.tryConsume(START + INTERVAL), equalTo(INTERVAL));
+    }
+
+    @Test
+    void shouldNotAccumulateMoreThanCapacityWhileIdle() {
+        TokenBucket bucket = new TokenBucket(2, 10, START);
+        long later = START + TimeUnit.SECONDS.toNanos(10);
+
+        assertThat(bucket.tryConsume(later), equalTo(0L));
+        assertThat(bucket.tryConsume(later), equalTo(0L));
+        assertThat(bucket.tryConsume(later), equalTo(INTERVAL));
+    }
+}
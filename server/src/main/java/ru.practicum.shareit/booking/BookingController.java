@@ -1,17 +1,32 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BatchBookingResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
 import ru.practicum.shareit.booking.dto.ResponseBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingResult;
 import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.service.BookingCounterService;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.etag.ETagService;
+import ru.practicum.shareit.util.NdjsonUtil;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static ru.practicum.shareit.util.Constants.NEXT_CURSOR_HEADER;
 import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
 
 @RestController
@@ -20,6 +35,9 @@ import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingCounterService bookingCounterService;
+    private final ETagService eTagService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseBookingDto add(@RequestBody RequestBookingDto bookingDto,
@@ -31,6 +49,17 @@ public class BookingController {
         return BookingMapper.toResponseBookingDto(booking);
     }
 
+    @PostMapping("/batch")
+    public List<BatchBookingResultDto> addAll(@RequestBody List<RequestBookingDto> bookingDtos,
+                                              @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+        List<BookingResult> results = bookingService.addAll(bookingDtos.stream()
+                .map(BookingMapper::requestBookingDtoToBookingOfItem)
+                .collect(Collectors.toList()), userId);
+        return IntStream.range(0, results.size())
+                .mapToObj(i -> BookingMapper.toBatchBookingResultDto(i, results.get(i)))
+                .collect(Collectors.toList());
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseBookingDto bookingDecision(@PathVariable long bookingId,
                                               @RequestHeader(REQUEST_HEADER_USER_ID) long userId,
@@ -47,25 +76,86 @@ public class BookingController {
     }
 
     @GetMapping
-    public Collection<ResponseBookingDto> getByStateAndUserId(
+    public ResponseEntity<Collection<ResponseBookingDto>> getByStateAndUserId(
             @RequestParam(value = "state", defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") int from,
             @RequestParam(value = "size", defaultValue = "5") int size,
-            @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
-        return bookingService.getByStateAndUserId(State.valueOf(state), userId, from, size)
-                .stream()
-                .map(BookingMapper::toResponseBookingDto)
-                .collect(Collectors.toList());
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(eTagService.forBookerBookings(webRequest, userId))) {
+            return null;
+        }
+        if (cursor == null) {
+            return toResponse(bookingService.getByStateAndUserId(State.valueOf(state), userId, from, size));
+        }
+        return toPageWithCursor(bookingService.getByStateAndUserId(State.valueOf(state),
+                userId,
+                BookingCursor.decode(cursor),
+                size), size);
     }
 
     @GetMapping("/owner")
-    public Collection<ResponseBookingDto> getAllByStateAndUserId(
+    public ResponseEntity<Collection<ResponseBookingDto>> getAllByStateAndUserId(
             @RequestParam(value = "state", defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") int from,
             @RequestParam(value = "size", defaultValue = "5") int size,
-            @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
-        return bookingService.getAllByStateAndUserId(State.valueOf(state), userId, from, size)
-                .stream()
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(eTagService.forOwnerBookings(webRequest, userId))) {
+            return null;
+        }
+        if (cursor == null) {
+            return toResponse(bookingService.getAllByStateAndUserId(State.valueOf(state), userId, from, size));
+        }
+        return toPageWithCursor(bookingService.getAllByStateAndUserId(State.valueOf(state),
+                userId,
+                BookingCursor.decode(cursor),
+                size), size);
+    }
+
+    @GetMapping("/summary")
+    public Map<State, Long> getSummaryByBookerId(@RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+        return bookingCounterService.getBookerSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public Map<State, Long> getSummaryByOwnerId(@RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+        return bookingCounterService.getOwnerSummary(userId);
+    }
+
+    @GetMapping("/export")
+    public void exportByBookerId(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                 HttpServletResponse response) {
+        Consumer<ResponseBookingDto> writer = NdjsonUtil.lineWriter(objectMapper, response);
+        bookingService.exportByBookerId(userId, booking -> writer.accept(BookingMapper.toResponseBookingDto(booking)));
+        NdjsonUtil.startBody(response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportByOwnerId(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                HttpServletResponse response) {
+        Consumer<ResponseBookingDto> writer = NdjsonUtil.lineWriter(objectMapper, response);
+        bookingService.exportByOwnerId(userId, booking -> writer.accept(BookingMapper.toResponseBookingDto(booking)));
+        NdjsonUtil.startBody(response);
+    }
+
+    private ResponseEntity<Collection<ResponseBookingDto>> toPageWithCursor(List<Booking> bookings, int size) {
+        if (bookings.size() < size) {
+            return toResponse(bookings);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, BookingCursor.encode(bookings.get(bookings.size() - 1)))
+                .body(toDtos(bookings));
+    }
+
+    private ResponseEntity<Collection<ResponseBookingDto>> toResponse(List<Booking> bookings) {
+        return ResponseEntity.ok(toDtos(bookings));
+    }
+
+    private Collection<ResponseBookingDto> toDtos(List<Booking> bookings) {
+        return bookings.stream()
                 .map(BookingMapper::toResponseBookingDto)
                 .collect(Collectors.toList());
     }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BatchBookingResultDto {
+    private int index;
+    private int status;
+    private ResponseBookingDto booking;
+    private String error;
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.NotAvailableException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Data
+@Builder
+public class BookingCursor {
+    private static final String SEPARATOR = "|";
+
+    private LocalDateTime start;
+    private long id;
+
+    public static String encode(Booking booking) {
+        String value = booking.getStart() + SEPARATOR + booking.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nullable
+    public static BookingCursor decode(String cursor) {
+        if (cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return BookingCursor.builder()
+                    .start(LocalDateTime.parse(value.substring(0, separator)))
+                    .id(Long.parseLong(value.substring(separator + 1)))
+                    .build();
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new NotAvailableException(String.format("Некорректный курсор %s", cursor));
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package ru.practicum.shareit.booking.mapper;
 
 import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.booking.dto.BatchBookingResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
 import ru.practicum.shareit.booking.dto.ResponseBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingResult;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
 @UtilityClass
@@ -30,6 +35,30 @@ public class BookingMapper {
                 .build();
     }
 
+    public Booking requestBookingDtoToBookingOfItem(RequestBookingDto bookingDto) {
+        return requestBookingDtoToBooking(bookingDto).toBuilder()
+                .item(Item.builder().id(bookingDto.getItemId()).build())
+                .build();
+    }
+
+    public BatchBookingResultDto toBatchBookingResultDto(int index, BookingResult result) {
+        if (result.getError() == null) {
+            return BatchBookingResultDto.builder()
+                    .index(index)
+                    .status(HttpStatus.OK.value())
+                    .booking(toResponseBookingDto(result.getBooking()))
+                    .build();
+        }
+        HttpStatus status = result.getError() instanceof NotFoundException
+                ? HttpStatus.NOT_FOUND
+                : HttpStatus.BAD_REQUEST;
+        return BatchBookingResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .error(result.getError().getMessage())
+                .build();
+    }
+
     public BookingDto toBookingDto(Booking booking) {
         return BookingDto.builder()
                 .id(booking.getId())
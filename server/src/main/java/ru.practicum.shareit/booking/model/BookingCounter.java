@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+@Data
+@Builder
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(BookingCounter.Key.class)
+@Table(name = "booking_counters", schema = "public")
+public class BookingCounter {
+    @Id
+    @Column(name = "user_id")
+    private long userId;
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "user_role")
+    private BookingRole role;
+    @Column(name = "waiting_bookings")
+    private long waiting;
+    @Column(name = "future_bookings")
+    private long future;
+    @Column(name = "current_bookings")
+    private long current;
+    @Column(name = "past_bookings")
+    private long past;
+    @Column(name = "future_rejected")
+    private long futureRejected;
+    @Column(name = "current_rejected")
+    private long currentRejected;
+    @Column(name = "past_rejected")
+    private long pastRejected;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private long userId;
+        private BookingRole role;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+
+@Getter
+public class BookingCounterDelta {
+    private long waiting;
+    private long future;
+    private long current;
+    private long past;
+    private long futureRejected;
+    private long currentRejected;
+    private long pastRejected;
+
+    public BookingCounterDelta add(State phase, Status status, long bookings) {
+        if (status == Status.WAITING) {
+            waiting += bookings;
+        }
+        boolean rejected = status == Status.REJECTED;
+        switch (phase) {
+            case FUTURE:
+                future += bookings;
+                futureRejected += rejected ? bookings : 0;
+                break;
+            case CURRENT:
+                current += bookings;
+                currentRejected += rejected ? bookings : 0;
+                break;
+            case PAST:
+                past += bookings;
+                pastRejected += rejected ? bookings : 0;
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестная фаза бронирования " + phase);
+        }
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return waiting == 0 && future == 0 && current == 0 && past == 0
+                && futureRejected == 0 && currentRejected == 0 && pastRejected == 0;
+    }
+}
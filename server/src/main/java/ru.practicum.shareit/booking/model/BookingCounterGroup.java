@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.model;
+
+public interface BookingCounterGroup {
+    long getUserId();
+
+    State getPhase();
+
+    Status getStatus();
+
+    long getBookings();
+}
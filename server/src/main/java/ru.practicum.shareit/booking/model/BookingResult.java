@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingResult {
+    @Nullable
+    Booking booking;
+    @Nullable
+    RuntimeException error;
+
+    public static BookingResult created(Booking booking) {
+        return new BookingResult(booking, null);
+    }
+
+    public static BookingResult failed(RuntimeException error) {
+        return new BookingResult(null, error);
+    }
+}
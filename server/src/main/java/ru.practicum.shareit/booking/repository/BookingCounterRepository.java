@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.BookingCounter;
+import ru.practicum.shareit.booking.model.BookingCounterDelta;
+import ru.practicum.shareit.booking.model.BookingRole;
+
+public interface BookingCounterRepository extends JpaRepository<BookingCounter, BookingCounter.Key> {
+    @Modifying
+    @Query("update BookingCounter c set " +
+            "c.waiting = c.waiting + :#{#delta.waiting}, " +
+            "c.future = c.future + :#{#delta.future}, " +
+            "c.current = c.current + :#{#delta.current}, " +
+            "c.past = c.past + :#{#delta.past}, " +
+            "c.futureRejected = c.futureRejected + :#{#delta.futureRejected}, " +
+            "c.currentRejected = c.currentRejected + :#{#delta.currentRejected}, " +
+            "c.pastRejected = c.pastRejected + :#{#delta.pastRejected} " +
+            "where c.userId = :userId and c.role = :role")
+    void add(@Param("userId") long userId,
+             @Param("role") BookingRole role,
+             @Param("delta") BookingCounterDelta delta);
+}
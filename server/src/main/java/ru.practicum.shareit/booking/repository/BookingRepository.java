@@ -1,58 +1,109 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCounterGroup;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdAndItemIdAndStatusAndEndBefore(long bookerId,
-                                                               long itemId,
-                                                               Status status,
-                                                               LocalDateTime current);
+import static org.hibernate.annotations.QueryHints.CACHE_MODE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
-    List<Booking> findByBookerId(long bookerId, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long bookingId);
 
-    List<Booking> findByBookerIdAndStatus(long bookerId, Status status, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Booking> findLockedById(long bookingId);
 
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfter(long bookerId,
-                                                          LocalDateTime forStart,
-                                                          LocalDateTime forEnd,
-                                                          Pageable pageable);
+    @Query("select b from Booking b where b.booker.id = :bookerId and b.item.id = :itemId " +
+            "and b.status = :status and b.end < :current")
+    List<Booking> findByBookerIdAndItemIdAndStatusAndEndBefore(@Param("bookerId") long bookerId,
+                                                               @Param("itemId") long itemId,
+                                                               @Param("status") Status status,
+                                                               @Param("current") LocalDateTime current);
 
-    List<Booking> findByBookerIdAndEndBefore(long bookerId, LocalDateTime forEnd, Pageable pageable);
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(long itemId,
+                                                               Collection<Status> statuses,
+                                                               LocalDateTime forEnd,
+                                                               LocalDateTime forStart);
 
-    List<Booking> findByBookerIdAndStartAfter(long bookerId, LocalDateTime forStart, Pageable pageable);
+    List<Booking> findByItemIdInAndStatusInAndStartBeforeAndEndAfter(Collection<Long> itemIds,
+                                                                     Collection<Status> statuses,
+                                                                     LocalDateTime forEnd,
+                                                                     LocalDateTime forStart);
 
-    List<Booking> findByItem_OwnerId(long ownerId, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = READ_ONLY, value = "true"),
+            @QueryHint(name = CACHE_MODE, value = "IGNORE")})
+    Stream<Booking> streamByBookerIdOrderByStartDescIdDesc(long bookerId);
 
-    List<Booking> findByItem_OwnerIdAndStatus(long ownerId, Status status, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = READ_ONLY, value = "true"),
+            @QueryHint(name = CACHE_MODE, value = "IGNORE")})
+    Stream<Booking> streamByOwnerIdOrderByStartDescIdDesc(long ownerId);
 
-    List<Booking> findByItem_OwnerIdAndStartBeforeAndEndAfter(long ownerId,
-                                                              LocalDateTime forStart,
-                                                              LocalDateTime forEnd,
-                                                              Pageable pageable);
+    @Query(value = "select count(*), max(b.id), max(b.updated_at), max(i.updated_at), " +
+            "min(case when b.start_date > :current then b.start_date when b.end_date > :current then b.end_date end) " +
+            "from bookings b join items i on i.id = b.item_id where b.booker_id = :bookerId",
+            nativeQuery = true)
+    List<Object[]> findVersionByBookerId(@Param("bookerId") long bookerId,
+                                         @Param("current") LocalDateTime current);
 
-    List<Booking> findByItem_OwnerIdAndStartBeforeAndStatusNot(long ownerId,
-                                                               LocalDateTime forEnd,
-                                                               Status status,
-                                                               Pageable pageable);
+    @Query(value = "select count(*), max(b.id), max(b.updated_at), max(i.updated_at), " +
+            "min(case when b.start_date > :current then b.start_date when b.end_date > :current then b.end_date end) " +
+            "from bookings b join items i on i.id = b.item_id where b.owner_id = :ownerId",
+            nativeQuery = true)
+    List<Object[]> findVersionByOwnerId(@Param("ownerId") long ownerId,
+                                        @Param("current") LocalDateTime current);
 
-    List<Booking> findByItem_OwnerIdAndStartAfterAndStatusNot(long ownerId,
-                                                              LocalDateTime forStart,
-                                                              Status status,
-                                                              Pageable pageable);
+    @Query(value = "select * from bookings where id in (" +
+            "select id from (select id, row_number() over (partition by item_id order by start_date desc) as rn " +
+            "from bookings where item_id in (:itemIds) and status <> 'REJECTED' and start_date < :current) " +
+            "as last_bookings where rn = 1 " +
+            "union all " +
+            "select id from (select id, row_number() over (partition by item_id order by start_date asc) as rn " +
+            "from bookings where item_id in (:itemIds) and status <> 'REJECTED' and start_date > :current) " +
+            "as next_bookings where rn = 1)",
+            nativeQuery = true)
+    List<Booking> findLastAndNextByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("current") LocalDateTime current);
 
-    List<Booking> findByItem_OwnerIdAndStartBeforeAndStatus(long ownerId,
-                                                               LocalDateTime forEnd,
-                                                               Status status,
-                                                               Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Booking> findFirst500ByCountedPhaseAndStartLessThanEqual(State countedPhase, LocalDateTime current);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Booking> findFirst500ByCountedPhaseAndEndLessThanEqual(State countedPhase, LocalDateTime current);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.countedPhase = :countedPhase where b.id in :ids")
+    void updateCountedPhase(@Param("ids") Collection<Long> ids, @Param("countedPhase") State countedPhase);
+
+    @Query("select b.owner.id as userId, b.countedPhase as phase, b.status as status, count(b) as bookings " +
+            "from Booking b where b.booker.id = :bookerId group by b.owner.id, b.countedPhase, b.status")
+    List<BookingCounterGroup> countByBookerIdGroupByOwner(@Param("bookerId") long bookerId);
 
-    List<Booking> findByItem_OwnerIdAndStartAfterAndStatus(long ownerId,
-                                                              LocalDateTime forStart,
-                                                              Status status,
-                                                              Pageable pageable);
+    @Query("select b.booker.id as userId, b.countedPhase as phase, b.status as status, count(b) as bookings " +
+            "from Booking b where b.owner.id = :ownerId group by b.booker.id, b.countedPhase, b.status")
+    List<BookingCounterGroup> countByOwnerIdGroupByBooker(@Param("ownerId") long ownerId);
 }
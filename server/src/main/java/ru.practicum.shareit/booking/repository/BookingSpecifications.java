@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+@UtilityClass
+public class BookingSpecifications {
+    public Specification<Booking> byBookerId(long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public Specification<Booking> byOwnerId(long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("owner").get("id"), ownerId);
+    }
+
+    public Specification<Booking> startBefore(LocalDateTime current) {
+        return (root, query, cb) -> cb.lessThan(root.get("start"), current);
+    }
+
+    public Specification<Booking> startAfter(LocalDateTime current) {
+        return (root, query, cb) -> cb.greaterThan(root.get("start"), current);
+    }
+
+    public Specification<Booking> endBefore(LocalDateTime current) {
+        return (root, query, cb) -> cb.lessThan(root.get("end"), current);
+    }
+
+    public Specification<Booking> endAfter(LocalDateTime current) {
+        return (root, query, cb) -> cb.greaterThan(root.get("end"), current);
+    }
+
+    public Specification<Booking> hasStatus(Status status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public Specification<Booking> statusNot(Status status) {
+        return (root, query, cb) -> cb.notEqual(root.get("status"), status);
+    }
+
+    public Specification<Booking> bookerState(State state, LocalDateTime current) {
+        switch (state) {
+            case CURRENT:
+                return startBefore(current).and(endAfter(current));
+            case PAST:
+                return endBefore(current);
+            case FUTURE:
+                return startAfter(current);
+            case WAITING:
+                return hasStatus(Status.WAITING);
+            case REJECTED:
+                return hasStatus(Status.REJECTED);
+            default:
+                return null;
+        }
+    }
+
+    public Specification<Booking> ownerState(State state, LocalDateTime current) {
+        switch (state) {
+            case CURRENT:
+                return startBefore(current).and(endAfter(current));
+            case PAST:
+                return startBefore(current).and(statusNot(Status.REJECTED));
+            case FUTURE:
+                return startAfter(current).and(statusNot(Status.REJECTED));
+            case WAITING:
+                return hasStatus(Status.WAITING);
+            case REJECTED:
+                return hasStatus(Status.REJECTED);
+            default:
+                return null;
+        }
+    }
+
+    public Specification<Booking> after(@Nullable BookingCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("start"), cursor.getStart()),
+                cb.and(cb.equal(root.get("start"), cursor.getStart()),
+                        cb.lessThan(root.get("id"), cursor.getId())));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking-counters.transitions-enabled", havingValue = "true", matchIfMissing = true)
+public class BookingCounterJob {
+    private final BookingCounterService bookingCounterService;
+
+    @Scheduled(fixedDelayString = "${shareit.booking-counters.transition-interval:PT1M}")
+    public void transition() {
+        bookingCounterService.transition(LocalDateTime.now());
+    }
+}
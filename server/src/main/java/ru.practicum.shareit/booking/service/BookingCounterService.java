@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+public interface BookingCounterService {
+    void open(long userId);
+
+    void add(Collection<Booking> bookings);
+
+    void changeStatus(Booking booking, Status previous);
+
+    void forget(long userId);
+
+    void transition(LocalDateTime current);
+
+    Map<State, Long> getBookerSummary(long userId);
+
+    Map<State, Long> getOwnerSummary(long userId);
+}
@@ -0,0 +1,202 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.*;
+import ru.practicum.shareit.booking.repository.BookingCounterRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+@Service
+public class BookingCounterServiceImpl implements BookingCounterService {
+    private static final int TRANSITION_CHUNK_SIZE = 500;
+    private static final Comparator<BookingCounter.Key> KEY_ORDER = Comparator
+            .comparingLong(BookingCounter.Key::getUserId)
+            .thenComparing(BookingCounter.Key::getRole);
+
+    private final BookingCounterRepository counterRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public BookingCounterServiceImpl(BookingCounterRepository counterRepository,
+                                     BookingRepository bookingRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     EntityManager entityManager) {
+        this.counterRepository = counterRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public void open(long userId) {
+        List<BookingCounter> counters = List.of(
+                BookingCounter.builder().userId(userId).role(BookingRole.BOOKER).build(),
+                BookingCounter.builder().userId(userId).role(BookingRole.OWNER).build());
+        counters.forEach(entityManager::persist);
+        // Дальше счётчики меняются только массовыми update, поэтому в контексте их не держим
+        entityManager.flush();
+        counters.forEach(entityManager::detach);
+    }
+
+    @Override
+    @Transactional
+    public void add(Collection<Booking> bookings) {
+        LocalDateTime current = LocalDateTime.now();
+        Map<BookingCounter.Key, BookingCounterDelta> deltas = newDeltas();
+        for (Booking booking : bookings) {
+            booking.setCountedPhase(phaseOf(booking, current));
+            delta(deltas, booking.getBooker().getId(), BookingRole.BOOKER)
+                    .add(booking.getCountedPhase(), booking.getStatus(), 1);
+            delta(deltas, booking.getOwner().getId(), BookingRole.OWNER)
+                    .add(booking.getCountedPhase(), booking.getStatus(), 1);
+        }
+        apply(deltas);
+    }
+
+    @Override
+    @Transactional
+    public void changeStatus(Booking booking, Status previous) {
+        Map<BookingCounter.Key, BookingCounterDelta> deltas = newDeltas();
+        delta(deltas, booking.getBooker().getId(), BookingRole.BOOKER)
+                .add(booking.getCountedPhase(), previous, -1)
+                .add(booking.getCountedPhase(), booking.getStatus(), 1);
+        delta(deltas, booking.getOwner().getId(), BookingRole.OWNER)
+                .add(booking.getCountedPhase(), previous, -1)
+                .add(booking.getCountedPhase(), booking.getStatus(), 1);
+        apply(deltas);
+    }
+
+    @Override
+    @Transactional
+    public void forget(long userId) {
+        Map<BookingCounter.Key, BookingCounterDelta> deltas = newDeltas();
+        bookingRepository.countByBookerIdGroupByOwner(userId).forEach(group ->
+                delta(deltas, group.getUserId(), BookingRole.OWNER)
+                        .add(group.getPhase(), group.getStatus(), -group.getBookings()));
+        bookingRepository.countByOwnerIdGroupByBooker(userId).forEach(group ->
+                delta(deltas, group.getUserId(), BookingRole.BOOKER)
+                        .add(group.getPhase(), group.getStatus(), -group.getBookings()));
+        deltas.keySet().removeIf(key -> key.getUserId() == userId);
+        apply(deltas);
+    }
+
+    @Override
+    public void transition(LocalDateTime current) {
+        // Каждая пачка коммитится отдельно, чтобы не держать блокировки на весь накопившийся хвост
+        int moved;
+        do {
+            moved = moveChunk(() -> bookingRepository.findFirst500ByCountedPhaseAndStartLessThanEqual(
+                    State.FUTURE, current), current);
+        } while (moved == TRANSITION_CHUNK_SIZE);
+        do {
+            moved = moveChunk(() -> bookingRepository.findFirst500ByCountedPhaseAndEndLessThanEqual(
+                    State.CURRENT, current), current);
+        } while (moved == TRANSITION_CHUNK_SIZE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<State, Long> getBookerSummary(long userId) {
+        BookingCounter counter = getCounter(userId, BookingRole.BOOKER);
+        Map<State, Long> summary = new EnumMap<>(State.class);
+        summary.put(State.ALL, counter.getFuture() + counter.getCurrent() + counter.getPast());
+        summary.put(State.CURRENT, counter.getCurrent());
+        summary.put(State.PAST, counter.getPast());
+        summary.put(State.FUTURE, counter.getFuture());
+        summary.put(State.WAITING, counter.getWaiting());
+        summary.put(State.REJECTED, rejected(counter));
+        return summary;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<State, Long> getOwnerSummary(long userId) {
+        BookingCounter counter = getCounter(userId, BookingRole.OWNER);
+        Map<State, Long> summary = new EnumMap<>(State.class);
+        summary.put(State.ALL, counter.getFuture() + counter.getCurrent() + counter.getPast());
+        summary.put(State.CURRENT, counter.getCurrent());
+        summary.put(State.PAST, counter.getCurrent() + counter.getPast()
+                - counter.getCurrentRejected() - counter.getPastRejected());
+        summary.put(State.FUTURE, counter.getFuture() - counter.getFutureRejected());
+        summary.put(State.WAITING, counter.getWaiting());
+        summary.put(State.REJECTED, rejected(counter));
+        return summary;
+    }
+
+    private int moveChunk(Supplier<List<Booking>> chunk, LocalDateTime current) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Booking> bookings = chunk.get();
+            Map<BookingCounter.Key, BookingCounterDelta> deltas = newDeltas();
+            move(bookings, current, deltas);
+            apply(deltas);
+            return bookings.size();
+        });
+        return moved == null ? 0 : moved;
+    }
+
+    private void move(List<Booking> bookings,
+                      LocalDateTime current,
+                      Map<BookingCounter.Key, BookingCounterDelta> deltas) {
+        Map<State, List<Long>> idsByPhase = new EnumMap<>(State.class);
+        for (Booking booking : bookings) {
+            State phase = phaseOf(booking, current);
+            delta(deltas, booking.getBooker().getId(), BookingRole.BOOKER)
+                    .add(booking.getCountedPhase(), booking.getStatus(), -1)
+                    .add(phase, booking.getStatus(), 1);
+            delta(deltas, booking.getOwner().getId(), BookingRole.OWNER)
+                    .add(booking.getCountedPhase(), booking.getStatus(), -1)
+                    .add(phase, booking.getStatus(), 1);
+            idsByPhase.computeIfAbsent(phase, p -> new ArrayList<>()).add(booking.getId());
+        }
+        // Фаза нужна только счётчикам и не попадает в ответы, поэтому updated_at здесь не обновляем
+        idsByPhase.forEach((phase, ids) -> bookingRepository.updateCountedPhase(ids, phase));
+    }
+
+    /**
+     * Строки счётчиков обновляются в порядке (userId, role), чтобы параллельные транзакции
+     * брали блокировки в одном порядке и не ловили взаимоблокировку.
+     */
+    private static Map<BookingCounter.Key, BookingCounterDelta> newDeltas() {
+        return new TreeMap<>(KEY_ORDER);
+    }
+
+    private void apply(Map<BookingCounter.Key, BookingCounterDelta> deltas) {
+        deltas.forEach((key, delta) -> {
+            if (!delta.isEmpty()) {
+                counterRepository.add(key.getUserId(), key.getRole(), delta);
+            }
+        });
+    }
+
+    private BookingCounter getCounter(long userId, BookingRole role) {
+        return counterRepository.findById(new BookingCounter.Key(userId, role)).orElseThrow(() ->
+                new NotFoundException(String.format("Пользователь с id %d не найден", userId)));
+    }
+
+    private static BookingCounterDelta delta(Map<BookingCounter.Key, BookingCounterDelta> deltas,
+                                             long userId,
+                                             BookingRole role) {
+        return deltas.computeIfAbsent(new BookingCounter.Key(userId, role), key -> new BookingCounterDelta());
+    }
+
+    private static long rejected(BookingCounter counter) {
+        return counter.getFutureRejected() + counter.getCurrentRejected() + counter.getPastRejected();
+    }
+
+    private static State phaseOf(Booking booking, LocalDateTime current) {
+        if (booking.getStart().isAfter(current)) {
+            return State.FUTURE;
+        }
+        return booking.getEnd().isAfter(current) ? State.CURRENT : State.PAST;
+    }
+}
@@ -1,18 +1,32 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingResult;
 import ru.practicum.shareit.booking.model.State;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     Booking add(Booking booking, long itemId, long userId);
 
+    List<BookingResult> addAll(List<Booking> bookings, long userId);
+
     Booking bookingDecision(long bookingId, long userId, boolean isApproved);
 
     List<Booking> getByStateAndUserId(State state, long userId, int from, int size);
 
     List<Booking> getAllByStateAndUserId(State state, long userId, int from, int size);
 
+    List<Booking> getByStateAndUserId(State state, long userId, @Nullable BookingCursor cursor, int size);
+
+    List<Booking> getAllByStateAndUserId(State state, long userId, @Nullable BookingCursor cursor, int size);
+
+    void exportByBookerId(long bookerId, Consumer<Booking> consumer);
+
+    void exportByOwnerId(long ownerId, Consumer<Booking> consumer);
+
     Booking getByBookingIdAndUserId(long bookingId, long userId);
 }
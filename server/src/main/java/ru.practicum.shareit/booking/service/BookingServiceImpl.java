@@ -1,10 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingResult;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -15,25 +16,38 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static ru.practicum.shareit.util.Constants.SORT_BY_START_DATE_DESC;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.*;
+import static ru.practicum.shareit.util.Constants.SORT_BY_START_DATE_AND_ID_DESC;
 
 @Service
 public class BookingServiceImpl implements BookingService {
+    private static final Set<Status> BLOCKING_STATUSES = EnumSet.of(Status.WAITING, Status.APPROVED);
+    private static final int EXPORT_CLEAR_SIZE = 500;
 
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingCounterService bookingCounterService;
+    private final EntityManager entityManager;
 
     public BookingServiceImpl(BookingRepository bookingRepository,
                               ItemRepository itemRepository,
-                              UserRepository userRepository) {
+                              UserRepository userRepository,
+                              BookingCounterService bookingCounterService,
+                              EntityManager entityManager) {
         this.bookingRepository = bookingRepository;
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
+        this.bookingCounterService = bookingCounterService;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -41,8 +55,85 @@ public class BookingServiceImpl implements BookingService {
     public Booking add(Booking booking, long itemId, long userId) {
         User booker = userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException(String.format("Пользователь с id %d не найден", userId)));
-        Item item = itemRepository.findById(itemId).orElseThrow(() ->
+        Item item = itemRepository.findLockedById(itemId).orElseThrow(() ->
                 new NotFoundException(String.format("Вещь с id %d не найдена", itemId)));
+        checkBookable(booking, item, userId);
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId,
+                BLOCKING_STATUSES,
+                booking.getEnd(),
+                booking.getStart())) {
+            throw new NotAvailableException("Вещь уже забронирована на эти даты");
+        }
+        Booking newBooking = booking.toBuilder()
+                .booker(booker)
+                .item(item)
+                .owner(item.getOwner())
+                .build();
+        bookingCounterService.add(List.of(newBooking));
+        return bookingRepository.save(newBooking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingResult> addAll(List<Booking> bookings, long userId) {
+        User booker = userRepository.findById(userId).orElseThrow(() ->
+                new NotFoundException(String.format("Пользователь с id %d не найден", userId)));
+        if (bookings.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Long> itemIds = bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        Map<Long, Item> itemsById = itemRepository.findLockedByIdInOrderById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<Booking>> reservedByItemId = bookingRepository.findByItemIdInAndStatusInAndStartBeforeAndEndAfter(
+                        itemIds,
+                        BLOCKING_STATUSES,
+                        bookings.stream().map(Booking::getEnd).max(Comparator.naturalOrder()).orElseThrow(),
+                        bookings.stream().map(Booking::getStart).min(Comparator.naturalOrder()).orElseThrow())
+                .stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        List<BookingResult> results = new ArrayList<>(bookings.size());
+        List<Booking> newBookings = new ArrayList<>();
+        for (Booking booking : bookings) {
+            try {
+                Booking newBooking = prepareBatchEntry(booking, booker, itemsById, reservedByItemId);
+                newBookings.add(newBooking);
+                results.add(BookingResult.created(newBooking));
+            } catch (NotFoundException | NotAvailableException e) {
+                results.add(BookingResult.failed(e));
+            }
+        }
+        bookingCounterService.add(newBookings);
+        bookingRepository.saveAll(newBookings);
+        return results;
+    }
+
+    private Booking prepareBatchEntry(Booking booking,
+                                      User booker,
+                                      Map<Long, Item> itemsById,
+                                      Map<Long, List<Booking>> reservedByItemId) {
+        long itemId = booking.getItem().getId();
+        Item item = itemsById.get(itemId);
+        if (item == null) {
+            throw new NotFoundException(String.format("Вещь с id %d не найдена", itemId));
+        }
+        checkBookable(booking, item, booker.getId());
+        List<Booking> reserved = reservedByItemId.computeIfAbsent(itemId, id -> new ArrayList<>());
+        if (reserved.stream().anyMatch(other -> other.getStart().isBefore(booking.getEnd())
+                && other.getEnd().isAfter(booking.getStart()))) {
+            throw new NotAvailableException("Вещь уже забронирована на эти даты");
+        }
+        Booking newBooking = booking.toBuilder()
+                .booker(booker)
+                .item(item)
+                .owner(item.getOwner())
+                .build();
+        reserved.add(newBooking);
+        return newBooking;
+    }
+
+    private void checkBookable(Booking booking, Item item, long userId) {
         if (item.getOwner().getId() == userId) {
             throw new NotFoundException("Нельзя забронировать свою вещь");
         }
@@ -52,20 +143,16 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getEnd().isBefore(booking.getStart()) || booking.getEnd().equals(booking.getStart())) {
             throw new NotAvailableException("Дата окончания брони должна быть позже даты начала");
         }
-        Booking newBooking = booking.toBuilder()
-                .booker(booker)
-                .item(item)
-                .build();
-        return bookingRepository.save(newBooking);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Booking getByBookingIdAndUserId(long bookingId, long userId) {
         User user = userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException(String.format("Пользователь с id %d не найден", userId)));
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
                 new NotFoundException(String.format("Бронь с id %d не найдена", bookingId)));
-        if (!booking.getBooker().equals(user) && !booking.getItem().getOwner().equals(user)) {
+        if (!booking.getBooker().equals(user) && !booking.getOwner().equals(user)) {
             throw new NotFoundException("Вы не являетесь владельцем или арендатором вещи");
         }
         return booking;
@@ -76,103 +163,95 @@ public class BookingServiceImpl implements BookingService {
     public Booking bookingDecision(long bookingId, long userId, boolean isApproved) {
         User user = userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException(String.format("Пользователь с id %d не найден", userId)));
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
+        Booking booking = bookingRepository.findLockedById(bookingId).orElseThrow(() ->
                 new NotFoundException(String.format("Бронь с id %d не найдена", bookingId)));
-        if (!booking.getItem().getOwner().equals(user)) {
+        if (!booking.getOwner().equals(user)) {
             throw new NotFoundException("Вы не являетесь владельцем вещи");
         }
         if (isApproved && booking.getStatus().equals(Status.APPROVED)) {
             throw new NotAvailableException("Бронирование уже подтверждено");
         }
+        Status previous = booking.getStatus();
         booking.setStatus(isApproved ? Status.APPROVED : Status.REJECTED);
+        bookingCounterService.changeStatus(booking, previous);
         return bookingRepository.save(booking);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Booking> getByStateAndUserId(State state, long bookerId, int from, int size) {
         if (!userRepository.existsById(bookerId)) {
             throw new NotFoundException(String.format("Пользователь с id %d не найден", bookerId));
         }
-        LocalDateTime current = LocalDateTime.now();
-        Pageable page = PageRequest.of(from / size, size, SORT_BY_START_DATE_DESC);
-        switch (state) {
-            case ALL:
-                return bookingRepository.findByBookerId(
-                        bookerId,
-                        page);
-            case CURRENT:
-                return bookingRepository.findByBookerIdAndStartBeforeAndEndAfter(
-                        bookerId,
-                        current,
-                        current,
-                        page);
-            case PAST:
-                return bookingRepository.findByBookerIdAndEndBefore(
-                        bookerId,
-                        current,
-                        page);
-            case FUTURE:
-                return bookingRepository.findByBookerIdAndStartAfter(
-                        bookerId,
-                        current,
-                        page);
-            case WAITING:
-                return bookingRepository.findByBookerIdAndStatus(
-                        bookerId,
-                        Status.WAITING,
-                        page);
-            case REJECTED:
-                return bookingRepository.findByBookerIdAndStatus(
-                        bookerId,
-                        Status.REJECTED,
-                        page);
-            default:
-                return Collections.emptyList();
-        }
+        Specification<Booking> specification = byBookerId(bookerId)
+                .and(bookerState(state, LocalDateTime.now()));
+        return bookingRepository.findSlice(specification, SORT_BY_START_DATE_AND_ID_DESC, from / size * size, size);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Booking> getAllByStateAndUserId(State state, long ownerId, int from, int size) {
         if (!userRepository.existsById(ownerId)) {
             throw new NotFoundException(String.format("Пользователь с id %d не найден", ownerId));
         }
-        LocalDateTime current = LocalDateTime.now();
-        Pageable page = PageRequest.of(from / size, size, SORT_BY_START_DATE_DESC);
-        switch (state) {
-            case ALL:
-                return bookingRepository.findByItem_OwnerId(
-                        ownerId,
-                        page);
-            case CURRENT:
-                return bookingRepository.findByItem_OwnerIdAndStartBeforeAndEndAfter(
-                        ownerId,
-                        current,
-                        current,
-                        page);
-            case PAST:
-                return bookingRepository.findByItem_OwnerIdAndStartBeforeAndStatusNot(
-                        ownerId,
-                        current,
-                        Status.REJECTED,
-                        page);
-            case FUTURE:
-                return bookingRepository.findByItem_OwnerIdAndStartAfterAndStatusNot(
-                        ownerId,
-                        current,
-                        Status.REJECTED,
-                        page);
-            case WAITING:
-                return bookingRepository.findByItem_OwnerIdAndStatus(
-                        ownerId,
-                        Status.WAITING,
-                        page);
-            case REJECTED:
-                return bookingRepository.findByItem_OwnerIdAndStatus(
-                        ownerId,
-                        Status.REJECTED,
-                        page);
-            default:
-                return Collections.emptyList();
+        Specification<Booking> specification = byOwnerId(ownerId)
+                .and(ownerState(state, LocalDateTime.now()));
+        return bookingRepository.findSlice(specification, SORT_BY_START_DATE_AND_ID_DESC, from / size * size, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Booking> getByStateAndUserId(State state, long bookerId, BookingCursor cursor, int size) {
+        if (!userRepository.existsById(bookerId)) {
+            throw new NotFoundException(String.format("Пользователь с id %d не найден", bookerId));
+        }
+        Specification<Booking> specification = byBookerId(bookerId)
+                .and(bookerState(state, LocalDateTime.now()))
+                .and(after(cursor));
+        return bookingRepository.findSlice(specification, SORT_BY_START_DATE_AND_ID_DESC, 0, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Booking> getAllByStateAndUserId(State state, long ownerId, BookingCursor cursor, int size) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new NotFoundException(String.format("Пользователь с id %d не найден", ownerId));
+        }
+        Specification<Booking> specification = byOwnerId(ownerId)
+                .and(ownerState(state, LocalDateTime.now()))
+                .and(after(cursor));
+        return bookingRepository.findSlice(specification, SORT_BY_START_DATE_AND_ID_DESC, 0, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportByBookerId(long bookerId, Consumer<Booking> consumer) {
+        if (!userRepository.existsById(bookerId)) {
+            throw new NotFoundException(String.format("Пользователь с id %d не найден", bookerId));
+        }
+        try (Stream<Booking> bookings = bookingRepository.streamByBookerIdOrderByStartDescIdDesc(bookerId)) {
+            export(bookings, consumer);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportByOwnerId(long ownerId, Consumer<Booking> consumer) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new NotFoundException(String.format("Пользователь с id %d не найден", ownerId));
+        }
+        try (Stream<Booking> bookings = bookingRepository.streamByOwnerIdOrderByStartDescIdDesc(ownerId)) {
+            export(bookings, consumer);
+        }
+    }
+
+    private void export(Stream<Booking> bookings, Consumer<Booking> consumer) {
+        long count = 0;
+        for (Iterator<Booking> iterator = bookings.iterator(); iterator.hasNext(); ) {
+            consumer.accept(iterator.next());
+            if (++count % EXPORT_CLEAR_SIZE == 0) {
+                entityManager.clear();
+            }
         }
     }
 }
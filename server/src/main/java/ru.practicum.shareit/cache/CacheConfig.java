@@ -0,0 +1,49 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+    public static final String USER_EXISTS = "userExists";
+
+    @Bean
+    public JCacheManagerCustomizer regionsCustomizer(CacheProperties properties) {
+        return cacheManager -> properties.getMaximumSize().forEach((region, maximumSize) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(properties.getExpireAfterWrite().toNanos()));
+            configuration.setStatisticsEnabled(true);
+            if (cacheManager.getCache(region) == null) {
+                cacheManager.createCache(region, configuration);
+            }
+        });
+    }
+
+    @Bean
+    public CacheManagerCustomizer<JCacheCacheManager> transactionAwareCustomizer() {
+        return cacheManager -> cacheManager.setTransactionAware(true);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(ObjectProvider<CacheManager> cacheManager) {
+        return hibernateProperties -> cacheManager.ifAvailable(manager ->
+                hibernateProperties.put(ConfigSettings.CACHE_MANAGER, manager));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static ru.practicum.shareit.cache.CacheConfig.ITEMS;
+import static ru.practicum.shareit.cache.CacheConfig.USERS;
+import static ru.practicum.shareit.cache.CacheConfig.USER_EXISTS;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.cache")
+public class CacheProperties {
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+    private Map<String, Long> maximumSize = new HashMap<>(Map.of(
+            USERS, 10_000L,
+            ITEMS, 50_000L,
+            USER_EXISTS, 10_000L));
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.web.context.request.WebRequest;
+
+public interface ETagService {
+    String forBookerBookings(WebRequest request, long userId);
+
+    String forOwnerBookings(WebRequest request, long userId);
+
+    String forItem(WebRequest request, long itemId, long userId);
+
+    String forOwnerItems(WebRequest request, long userId);
+
+    String forRequest(WebRequest request, long requestId, long userId);
+
+    String forRequesterRequests(WebRequest request, long userId);
+
+    String forOtherRequests(WebRequest request, long userId, int from, int size);
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * ETag собирается из адреса ресурса с параметрами запроса, пользователя и версии выборки:
+ * количества строк, максимального id и updated_at по тем таблицам, из которых строится ответ.
+ * Для бронирований в версию входит ближайшая граница start/end, после которой меняется state.
+ */
+@Service
+public class ETagServiceImpl implements ETagService {
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository requestRepository;
+
+    public ETagServiceImpl(BookingRepository bookingRepository,
+                           ItemRepository itemRepository,
+                           ItemRequestRepository requestRepository) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.requestRepository = requestRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String forBookerBookings(WebRequest request, long userId) {
+        return tag(request, userId, bookingRepository.findVersionByBookerId(userId, LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String forOwnerBookings(WebRequest request, long userId) {
+        return tag(request, userId, bookingRepository.findVersionByOwnerId(userId, LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String forItem(WebRequest request, long itemId, long userId) {
+        return tag(request, userId, itemRepository.findVersionById(itemId, LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String forOwnerItems(WebRequest request, long userId) {
+        return tag(request, userId, itemRepository.findVersionByOwnerId(userId, LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String forRequest(WebRequest request, long requestId, long userId) {
+        return tag(request, userId, requestRepository.findVersionById(requestId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String forRequesterRequests(WebRequest request, long userId) {
+        return tag(request, userId, requestRepository.findVersionByRequesterId(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String forOtherRequests(WebRequest request, long userId, int from, int size) {
+        return tag(request, userId, requestRepository.findVersionByRequesterIdNot(userId, from / size * size, size));
+    }
+
+    private static String tag(WebRequest request, long userId, List<Object[]> version) {
+        StringBuilder source = new StringBuilder(request.getDescription(false));
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) ->
+                source.append('&').append(name).append('=').append(String.join(",", values)));
+        source.append('|').append(userId);
+        version.forEach(row -> source.append('|').append(Arrays.toString(row)));
+        return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
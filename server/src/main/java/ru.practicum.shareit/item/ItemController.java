@@ -1,17 +1,31 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.etag.ETagService;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.NdjsonUtil;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
 
@@ -21,6 +35,8 @@ import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ETagService eTagService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto add(@RequestBody ItemDto itemDto,
@@ -31,6 +47,25 @@ public class ItemController {
         return ItemMapper.toItemDto(item);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemImportDto importItems(InputStream body,
+                                     @RequestHeader(REQUEST_HEADER_USER_ID) long userId) throws IOException {
+        try (MappingIterator<ItemDto> rows = objectMapper.readerFor(ItemDto.class).readValues(body)) {
+            long imported = itemService.addAll(StreamSupport.stream(
+                            Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+                    .map(ItemMapper::dtoToItem), userId);
+            return ItemImportDto.builder().imported(imported).build();
+        }
+    }
+
+    @GetMapping("/export")
+    public void exportItems(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                            HttpServletResponse response) {
+        Consumer<ItemDto> writer = NdjsonUtil.lineWriter(objectMapper, response);
+        itemService.exportByUserId(userId, item -> writer.accept(ItemMapper.toItemDto(item)));
+        NdjsonUtil.startBody(response);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateById(@RequestBody ItemDto itemDto,
                               @PathVariable long itemId,
@@ -41,14 +76,22 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ItemDto getById(@PathVariable long itemId,
-                           @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+                           @RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                           WebRequest webRequest) {
+        if (webRequest.checkNotModified(eTagService.forItem(webRequest, itemId, userId))) {
+            return null;
+        }
         return ItemMapper.toItemDto(itemService.getByItemId(itemId, userId));
     }
 
     @GetMapping
     public Collection<ItemDto> getByUser(@RequestParam(value = "from", defaultValue = "0") int from,
                                          @RequestParam(value = "size", defaultValue = "5") int size,
-                                         @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+                                         @RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                         WebRequest webRequest) {
+        if (webRequest.checkNotModified(eTagService.forOwnerItems(webRequest, userId))) {
+            return null;
+        }
         return itemService.getByUserId(userId, from, size)
                 .stream()
                 .map(ItemMapper::toItemDto)
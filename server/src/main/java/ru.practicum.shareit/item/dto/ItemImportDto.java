@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ItemImportDto {
+    private long imported;
+}
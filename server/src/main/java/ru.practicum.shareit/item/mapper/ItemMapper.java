@@ -2,12 +2,10 @@ package ru.practicum.shareit.item.mapper;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemForBookingDto;
 import ru.practicum.shareit.item.model.Item;
 
-import java.util.Comparator;
 import java.util.stream.Collectors;
 
 @UtilityClass
@@ -22,7 +20,6 @@ public class ItemMapper {
         if (item.getComments() != null) {
             itemDto.setComments(item.getComments().stream()
                     .map(CommentMapper::toCommentDto)
-                    .sorted(Comparator.comparing(CommentDto::getCreated))
                     .collect(Collectors.toList()));
         }
         if (item.getLastBooking() != null) {
@@ -42,6 +39,7 @@ public class ItemMapper {
                 .name(itemDto.getName())
                 .description(itemDto.getDescription())
                 .available(itemDto.getAvailable())
+                .itemRequestId(itemDto.getRequestId())
                 .build();
     }
 
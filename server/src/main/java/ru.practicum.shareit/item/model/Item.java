@@ -1,13 +1,18 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.lang.Nullable;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.cache.CacheConfig;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -22,11 +27,14 @@ import java.util.List;
         "lastBooking",
         "nextBooking",
         "comments",
-        "itemRequestId"})
+        "itemRequestId",
+        "updatedAt"})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.ITEMS)
 @Table(name = "items", schema = "public")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_id_seq")
+    @SequenceGenerator(name = "items_id_seq", sequenceName = "items_id_seq", allocationSize = 50)
     private long id;
     @Column(name = "name", nullable = false)
     private String name;
@@ -40,6 +48,9 @@ public class Item {
     @Nullable
     @Column(name = "request_id")
     private Long itemRequestId;
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
     @Transient
     private Booking lastBooking;
     @Transient
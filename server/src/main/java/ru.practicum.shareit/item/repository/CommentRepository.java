@@ -1,12 +1,19 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(long itemId);
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from Comment c where c.item.id = :itemId order by c.created")
+    List<Comment> findByItemIdOrderByCreatedAsc(@Param("itemId") long itemId);
 
-    List<Comment> findByItemIdIn(List<Long> itemIds);
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from Comment c where c.item.id in :itemIds order by c.created")
+    List<Comment> findByItemIdInOrderByCreatedAsc(@Param("itemIds") List<Long> itemIds);
 }
@@ -2,13 +2,39 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.CACHE_MODE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Item> findLockedById(long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Item> findLockedByIdInOrderById(Collection<Long> itemIds);
+
     List<Item> findByOwnerId(long userId, Pageable pageable);
 
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = READ_ONLY, value = "true"),
+            @QueryHint(name = CACHE_MODE, value = "IGNORE")})
+    Stream<Item> streamByOwnerIdOrderById(long userId);
+
     List<Item> findByItemRequestId(long requestId);
 
     List<Item> findByItemRequestIdIn(List<Long> requestIds);
@@ -16,4 +42,35 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByAvailableTrueAndDescriptionContainingOrAvailableTrueAndNameContainingAllIgnoreCase(
             String containsInName, String containsInDescription, Pageable pageable);
 
+    @Query(value = "select it.updated_at, cm.comment_total, cm.comment_last_id, cm.comment_last_update, " +
+            "bk.booking_total, bk.booking_last_id, bk.booking_last_update, bk.booking_next_boundary from items it " +
+            "cross join (select count(*) as comment_total, max(c.id) as comment_last_id, max(u.updated_at) " +
+            "as comment_last_update " +
+            "from comments c join users u on u.id = c.author_id where c.item_id = :itemId) cm " +
+            "cross join (select count(*) as booking_total, max(b.id) as booking_last_id, max(b.updated_at) " +
+            "as booking_last_update, " +
+            "min(case when b.start_date > :current then b.start_date when b.end_date > :current then b.end_date end) " +
+            "as booking_next_boundary " +
+            "from bookings b where b.item_id = :itemId) bk " +
+            "where it.id = :itemId",
+            nativeQuery = true)
+    List<Object[]> findVersionById(@Param("itemId") long itemId, @Param("current") LocalDateTime current);
+
+    @Query(value = "select it.item_total, it.item_last_id, it.item_last_update, cm.comment_total, " +
+            "cm.comment_last_id, cm.comment_last_update, " +
+            "bk.booking_total, bk.booking_last_id, bk.booking_last_update, bk.booking_next_boundary " +
+            "from (select count(*) as item_total, max(i.id) as item_last_id, max(i.updated_at) as item_last_update " +
+            "from items i where i.owner_id = :ownerId) it " +
+            "cross join (select count(*) as comment_total, max(c.id) as comment_last_id, max(u.updated_at) " +
+            "as comment_last_update " +
+            "from comments c join items i on i.id = c.item_id join users u on u.id = c.author_id " +
+            "where i.owner_id = :ownerId) cm " +
+            "cross join (select count(*) as booking_total, max(b.id) as booking_last_id, max(b.updated_at) " +
+            "as booking_last_update, " +
+            "min(case when b.start_date > :current then b.start_date when b.end_date > :current then b.end_date end) " +
+            "as booking_next_boundary " +
+            "from bookings b where b.owner_id = :ownerId) bk",
+            nativeQuery = true)
+    List<Object[]> findVersionByOwnerId(@Param("ownerId") long ownerId, @Param("current") LocalDateTime current);
+
 }
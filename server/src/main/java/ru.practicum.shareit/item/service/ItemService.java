@@ -5,16 +5,22 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface ItemService {
     Item add(Item item, long userId, @Nullable Long requestId);
 
+    long addAll(Stream<Item> items, long userId);
+
     Item update(Item item, long itemId, long userId);
 
     Item getByItemId(long itemId, long userId);
 
     List<Item> getByUserId(long userId, int from, int size);
 
+    void exportByUserId(long userId, Consumer<Item> consumer);
+
     List<Item> searchByText(String text, int from, int size);
 
     Comment addComment(Comment comment, long itemId, long userId);
@@ -3,7 +3,9 @@ package ru.practicum.shareit.item.service;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -16,33 +18,44 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.GroupingUtil;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.util.Constants.*;
 
 @Service
 public class ItemServiceImpl implements ItemService {
+    private static final int IMPORT_CHUNK_SIZE = 500;
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
 
     public ItemServiceImpl(ItemRepository itemRepository,
                            UserRepository userRepository,
                            BookingRepository bookingRepository,
                            CommentRepository commentRepository,
-                           ItemRequestRepository requestRepository) {
+                           ItemRequestRepository requestRepository,
+                           EntityManager entityManager,
+                           PlatformTransactionManager transactionManager) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.requestRepository = requestRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -60,13 +73,51 @@ public class ItemServiceImpl implements ItemService {
         return itemRepository.save(item);
     }
 
+    @Override
+    public long addAll(Stream<Item> items, long userId) {
+        User user = userRepository.findById(userId).orElseThrow(() ->
+                new NotFoundException(String.format("Пользователь с id %d не найден", userId)));
+        Set<Long> knownRequestIds = new HashSet<>();
+        Iterator<Item> iterator = items.iterator();
+        // Каждая пачка коммитится отдельно: на каждую вставку кэшируемой вещи сессия держит
+        // действие кэша второго уровня до конца транзакции, и clear() его не освобождает
+        long count = 0;
+        int added;
+        do {
+            added = addChunk(iterator, user, knownRequestIds);
+            count += added;
+        } while (added == IMPORT_CHUNK_SIZE);
+        return count;
+    }
+
+    private int addChunk(Iterator<Item> iterator, User owner, Set<Long> knownRequestIds) {
+        Integer added = transactionTemplate.execute(status -> {
+            int size = 0;
+            while (size < IMPORT_CHUNK_SIZE && iterator.hasNext()) {
+                Item item = iterator.next();
+                Long requestId = item.getItemRequestId();
+                if (requestId != null && !knownRequestIds.contains(requestId)) {
+                    if (!requestRepository.existsById(requestId)) {
+                        throw new NotFoundException(String.format("Запрос с id %d не найден", requestId));
+                    }
+                    knownRequestIds.add(requestId);
+                }
+                item.setOwner(owner);
+                itemRepository.save(item);
+                size++;
+            }
+            return size;
+        });
+        return added == null ? 0 : added;
+    }
+
     @Override
     @Transactional
     public Item update(Item item, long itemId, long userId) {
         User user = userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException(String.format("Пользователь с id %d не найден", userId)));
         Item itemForUpdate = itemRepository.findById(itemId).orElseThrow(() ->
-                new NotFoundException(String.format("Вещь с id %d не найдена", item.getId())));
+                new NotFoundException(String.format("Вещь с id %d не найдена", itemId)));
         if (!itemForUpdate.getOwner().equals(user)) {
             throw new NotFoundException(String.format("Вы не владеете вещью с id %d", itemForUpdate.getId()));
         }
@@ -83,64 +134,67 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Item getByItemId(long itemId, long userId) {
         User user = userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException(String.format("Пользователь с id %d не найден", userId)));
         Item item = itemRepository.findById(itemId).orElseThrow(() ->
                 new NotFoundException(String.format("Вещь с id %d не найдена", itemId)));
-        item.setComments(commentRepository.findByItemId(itemId));
+        item.setComments(commentRepository.findByItemIdOrderByCreatedAsc(itemId));
         if (item.getOwner().equals(user)) {
-            List<Booking> lastBookings = bookingRepository.findByItem_OwnerIdAndStartBeforeAndStatusNot(userId,
-                    LocalDateTime.now(),
-                    Status.REJECTED,
-                    PageRequest.of(0, 1, SORT_BY_START_DATE_DESC));
-            List<Booking> nextBookings = bookingRepository.findByItem_OwnerIdAndStartAfterAndStatusNot(userId,
-                    LocalDateTime.now(),
-                    Status.REJECTED,
-                    PageRequest.of(0, 1, SORT_BY_START_DATE_ASC));
-            setLastAndNextBookings(lastBookings, nextBookings, item);
+            setLastAndNextBookings(List.of(item));
         }
         return item;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Item> getByUserId(long userId, int from, int size) {
         List<Item> items = itemRepository.findByOwnerId(userId,
                 PageRequest.of(from / size, size, SORT_BY_ID_ASC));
-        List<Comment> comments = commentRepository.findByItemIdIn(items.stream()
+        List<Comment> comments = commentRepository.findByItemIdInOrderByCreatedAsc(items.stream()
                 .map(Item::getId)
                 .collect(Collectors.toList()));
-        List<Booking> lastBookings = bookingRepository.findByItem_OwnerIdAndStartBeforeAndStatusNot(userId,
-                LocalDateTime.now(),
-                Status.REJECTED,
-                PageRequest.of(0, 1, SORT_BY_START_DATE_DESC));
-        List<Booking> nextBookings = bookingRepository.findByItem_OwnerIdAndStartAfterAndStatusNot(userId,
-                LocalDateTime.now(),
-                Status.REJECTED,
-                PageRequest.of(0, 1, SORT_BY_START_DATE_ASC));
-        items.forEach(item -> item.setComments(comments.stream()
-                .filter(c -> c.getItem().getId() == item.getId())
-                .collect(Collectors.toList())));
-        items.forEach(item -> setLastAndNextBookings(lastBookings, nextBookings, item));
+        GroupingUtil.attach(items, Item::getId, comments, c -> c.getItem().getId(), Item::setComments);
+        setLastAndNextBookings(items);
         return items;
     }
 
-    private void setLastAndNextBookings(List<Booking> lastBookings,
-                                        List<Booking> nextBookings,
-                                        Item item) {
-        lastBookings.stream()
-                .filter(b -> b.getItem().getId() == item.getId())
-                .findFirst()
-                .ifPresent(item::setLastBooking);
-        nextBookings.stream()
-                .filter(b -> b.getItem().getId() == item.getId())
-                .findFirst()
-                .ifPresent(item::setNextBooking);
+    @Override
+    @Transactional(readOnly = true)
+    public void exportByUserId(long userId, Consumer<Item> consumer) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь с id %d не найден", userId));
+        }
+        try (Stream<Item> items = itemRepository.streamByOwnerIdOrderById(userId)) {
+            items.forEach(item -> {
+                consumer.accept(item);
+                entityManager.detach(item);
+            });
+        }
+    }
+
+    private void setLastAndNextBookings(List<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        LocalDateTime current = LocalDateTime.now();
+        Map<Long, Item> itemsById = items.stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        bookingRepository.findLastAndNextByItemIdIn(itemsById.keySet(), current).forEach(booking -> {
+            Item item = itemsById.get(booking.getItem().getId());
+            if (booking.getStart().isBefore(current)) {
+                item.setLastBooking(booking);
+            } else {
+                item.setNextBooking(booking);
+            }
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Item> searchByText(String text, int from, int size) {
-        Pageable page = PageRequest.of(from / size, size);
+        Pageable page = PageRequest.of(from / size, size, SORT_BY_ID_ASC);
         if (!text.isBlank()) {
             return itemRepository.findByAvailableTrueAndDescriptionContainingOrAvailableTrueAndNameContainingAllIgnoreCase(text, text, page);
         }
@@ -2,6 +2,8 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.etag.ETagService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -18,6 +20,7 @@ import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
 public class ItemRequestController {
 
     private final ItemRequestService requestService;
+    private final ETagService eTagService;
 
     @PostMapping
     public ItemRequestDto add(@RequestBody ItemRequestDto itemRequestDto,
@@ -28,21 +31,33 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ItemRequestDto getById(@PathVariable long requestId,
-                                  @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+                                  @RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                  WebRequest webRequest) {
+        if (webRequest.checkNotModified(eTagService.forRequest(webRequest, requestId, userId))) {
+            return null;
+        }
         return ItemRequestMapper.toItemRequestDto(requestService.getById(requestId, userId));
     }
 
     @GetMapping("/all")
     public Collection<ItemRequestDto> getAll(@RequestParam(value = "from", defaultValue = "0") int from,
                                              @RequestParam(value = "size", defaultValue = "5") int size,
-                                             @RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+                                             @RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                             WebRequest webRequest) {
+        if (webRequest.checkNotModified(eTagService.forOtherRequests(webRequest, userId, from, size))) {
+            return null;
+        }
         return requestService.getAll(userId, from, size).stream()
                 .map(ItemRequestMapper::toItemRequestDto)
                 .collect(Collectors.toList());
     }
 
     @GetMapping
-    public Collection<ItemRequestDto> getByUserId(@RequestHeader(REQUEST_HEADER_USER_ID) long userId) {
+    public Collection<ItemRequestDto> getByUserId(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                                  WebRequest webRequest) {
+        if (webRequest.checkNotModified(eTagService.forRequesterRequests(webRequest, userId))) {
+            return null;
+        }
         return requestService.getByUserId(userId).stream()
                 .map(ItemRequestMapper::toItemRequestDto)
                 .collect(Collectors.toList());
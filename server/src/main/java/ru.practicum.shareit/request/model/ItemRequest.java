@@ -19,7 +19,8 @@ import java.util.List;
 @Table(name = "requests", schema = "public")
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_id_seq")
+    @SequenceGenerator(name = "requests_id_seq", sequenceName = "requests_id_seq", allocationSize = 50)
     private long id;
     @Column(name = "description", nullable = false)
     private String description;
@@ -1,13 +1,61 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findByRequesterId(long userId);
+    @Override
+    @EntityGraph(attributePaths = "requester")
+    Optional<ItemRequest> findById(Long requestId);
 
+    @EntityGraph(attributePaths = "requester")
+    @Query("select r from ItemRequest r where r.requester.id = :userId")
+    List<ItemRequest> findByRequesterId(@Param("userId") long userId);
+
+    @EntityGraph(attributePaths = "requester")
     List<ItemRequest> findByRequesterIdNot(long userId, Pageable pageable);
+
+    @Query(value = "select r.id, u.updated_at, it.item_total, it.item_last_id, it.item_last_update " +
+            "from requests r join users u on u.id = r.requester_id " +
+            "cross join (select count(*) as item_total, max(i.id) as item_last_id, max(i.updated_at) " +
+            "as item_last_update " +
+            "from items i where i.request_id = :requestId) it " +
+            "where r.id = :requestId",
+            nativeQuery = true)
+    List<Object[]> findVersionById(@Param("requestId") long requestId);
+
+    @Query(value = "select u.updated_at, rq.request_total, rq.request_last_id, it.item_total, it.item_last_id, " +
+            "it.item_last_update " +
+            "from users u " +
+            "cross join (select count(*) as request_total, max(r.id) as request_last_id " +
+            "from requests r where r.requester_id = :userId) rq " +
+            "cross join (select count(*) as item_total, max(i.id) as item_last_id, max(i.updated_at) " +
+            "as item_last_update " +
+            "from items i join requests r on r.id = i.request_id where r.requester_id = :userId) it " +
+            "where u.id = :userId",
+            nativeQuery = true)
+    List<Object[]> findVersionByRequesterId(@Param("userId") long userId);
+
+    @Query(value = "select rq.request_total, rq.request_id_sum, rq.request_last_update, it.item_total, " +
+            "it.item_last_id, it.item_last_update " +
+            "from (select count(*) as request_total, sum(p.id) as request_id_sum, max(u.updated_at) " +
+            "as request_last_update " +
+            "from (select r.id, r.requester_id from requests r where r.requester_id <> :userId " +
+            "order by r.created desc limit :size offset :offset) p " +
+            "join users u on u.id = p.requester_id) rq " +
+            "cross join (select count(*) as item_total, max(i.id) as item_last_id, max(i.updated_at) " +
+            "as item_last_update " +
+            "from items i where i.request_id in (select r.id from requests r where r.requester_id <> :userId " +
+            "order by r.created desc limit :size offset :offset)) it",
+            nativeQuery = true)
+    List<Object[]> findVersionByRequesterIdNot(@Param("userId") long userId,
+                                               @Param("offset") int offset,
+                                               @Param("size") int size);
 }
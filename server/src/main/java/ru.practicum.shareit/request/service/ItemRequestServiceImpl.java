@@ -12,6 +12,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.GroupingUtil;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -43,6 +44,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRequest getById(long requestId, long userId) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException(String.format("Пользователь с id %d не найден", userId));
@@ -54,6 +56,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequest> getByUserId(long userId) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException(String.format("Пользователь с id %d не найден", userId));
@@ -64,6 +67,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequest> getAll(long userId, int from, int size) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException(String.format("Пользователь с id %d не найден", userId));
@@ -78,11 +82,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<Item> items = itemRepository.findByItemRequestIdIn(requests.stream()
                 .map(ItemRequest::getId)
                 .collect(Collectors.toList()));
-        if (!items.isEmpty()) {
-            requests.forEach(r -> r.setItemsOnRequest(items.stream()
-                    .filter(i -> i.getItemRequestId() != null)
-                    .filter(i -> i.getItemRequestId() == r.getId())
-                    .collect(Collectors.toList())));
-        }
+        GroupingUtil.attach(requests,
+                ItemRequest::getId,
+                items,
+                Item::getItemRequestId,
+                ItemRequest::setItemsOnRequest);
     }
 }
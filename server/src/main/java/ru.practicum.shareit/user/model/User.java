@@ -1,22 +1,32 @@
 package ru.practicum.shareit.user.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+import ru.practicum.shareit.cache.CacheConfig;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(exclude = {"name", "email"})
+@EqualsAndHashCode(exclude = {"name", "email", "updatedAt"})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.USERS)
 @Table(name = "users", schema = "public")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private long id;
     @Column(name = "name", nullable = false)
     private String name;
     @Column(name = "email", length = 512, nullable = false, unique = true)
     private String email;
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
 }
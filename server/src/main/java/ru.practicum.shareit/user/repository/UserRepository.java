@@ -1,8 +1,20 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.user.model.User;
 
+import static ru.practicum.shareit.cache.CacheConfig.USER_EXISTS;
+
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
+
+    @Override
+    @Cacheable(cacheNames = USER_EXISTS, key = "#p0", unless = "!#result")
+    boolean existsById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = USER_EXISTS, key = "#p0")
+    void deleteById(Long id);
 }
@@ -3,27 +3,40 @@ package ru.practicum.shareit.user.service;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.service.BookingCounterService;
 import ru.practicum.shareit.exception.AlreadyExistException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final BookingCounterService bookingCounterService;
+    private final EntityManagerFactory entityManagerFactory;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository,
+                           BookingCounterService bookingCounterService,
+                           EntityManagerFactory entityManagerFactory) {
         this.userRepository = userRepository;
+        this.bookingCounterService = bookingCounterService;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     @Override
     @Transactional
     public User add(User user) {
         try {
-            return userRepository.save(user);
+            User savedUser = userRepository.saveAndFlush(user);
+            bookingCounterService.open(savedUser.getId());
+            return savedUser;
         } catch (DataIntegrityViolationException e) {
             throw new AlreadyExistException(
                     String.format("Пользователь с почтовым адресом %s уже существует", user.getEmail()));
@@ -48,6 +61,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getById(long userId) {
         return userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException(String.format("Пользователь с id %d не найден", userId)));
@@ -56,10 +70,30 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void delete(long userId) {
+        bookingCounterService.forget(userId);
         userRepository.deleteById(userId);
+        afterCommit(() -> entityManagerFactory.getCache().evict(Item.class));
+    }
+
+    /**
+     * Вещи пользователя удаляет каскад в базе, поэтому регион чистим только после коммита:
+     * иначе параллельное чтение успеет вернуть в кэш ещё не удалённые строки.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getAll() {
         return userRepository.findAll();
     }
@@ -4,7 +4,9 @@ import org.springframework.data.domain.Sort;
 
 public class Constants {
     public static final String REQUEST_HEADER_USER_ID = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     public static final Sort SORT_BY_START_DATE_DESC = Sort.by(Sort.Direction.DESC, "start");
+    public static final Sort SORT_BY_START_DATE_AND_ID_DESC = Sort.by(Sort.Direction.DESC, "start", "id");
     public static final Sort SORT_BY_START_DATE_ASC = Sort.by(Sort.Direction.ASC, "start");
     public static final Sort SORT_BY_ID_ASC = Sort.by(Sort.Direction.ASC, "id");
 }
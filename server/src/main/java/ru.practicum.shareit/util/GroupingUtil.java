@@ -0,0 +1,33 @@
+package ru.practicum.shareit.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+@UtilityClass
+public class GroupingUtil {
+    public <C> Map<Long, List<C>> groupByParentId(Collection<C> children, Function<C, Long> parentId) {
+        return children.stream()
+                .filter(child -> parentId.apply(child) != null)
+                .collect(Collectors.groupingBy(parentId));
+    }
+
+    public <P, C> void attach(Collection<P> parents,
+                              ToLongFunction<P> id,
+                              Collection<C> children,
+                              Function<C, Long> parentId,
+                              BiConsumer<P, List<C>> setter) {
+        Map<Long, List<C>> childrenByParentId = groupByParentId(children, parentId);
+        parents.forEach(parent -> setter.accept(parent, Objects.requireNonNullElse(
+                childrenByParentId.get(id.applyAsLong(parent)),
+                Collections.emptyList())));
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+@UtilityClass
+public class NdjsonUtil {
+    public <T> Consumer<T> lineWriter(ObjectMapper objectMapper, HttpServletResponse response) {
+        return value -> {
+            try {
+                startBody(response);
+                response.getOutputStream().write(objectMapper.writeValueAsBytes(value));
+                response.getOutputStream().write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    public void startBody(HttpServletResponse response) {
+        if (response.getContentType() == null) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        }
+    }
+}
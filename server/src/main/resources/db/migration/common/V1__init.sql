@@ -47,4 +47,4 @@ create table if not exists requests (
     created timestamp not null,
     constraint PK_ITEM_REQUEST primary key (id),
     constraint FK_REQUESTER foreign key (requester_id) references users on delete cascade
-);
\ No newline at end of file
+);
@@ -0,0 +1,21 @@
+create index if not exists IDX_ITEM_OWNER on items (owner_id);
+
+create index if not exists IDX_ITEM_REQUEST on items (request_id);
+
+create index if not exists IDX_BOOKING_ITEM_START on bookings (item_id, start_date);
+
+create index if not exists IDX_BOOKING_ITEM_STATUS_START on bookings (item_id, status, start_date);
+
+create index if not exists IDX_BOOKING_BOOKER_START on bookings (booker_id, start_date desc, id desc);
+
+create index if not exists IDX_BOOKING_BOOKER_STATUS_START on bookings (booker_id, status, start_date desc);
+
+create index if not exists IDX_BOOKING_BOOKER_END on bookings (booker_id, end_date);
+
+create index if not exists IDX_BOOKING_BOOKER_ITEM_STATUS_END on bookings (booker_id, item_id, status, end_date);
+
+create index if not exists IDX_BOOKING_START on bookings (start_date);
+
+create index if not exists IDX_COMMENT_ITEM_CREATED on comments (item_id, created);
+
+create index if not exists IDX_REQUEST_REQUESTER_CREATED on requests (requester_id, created desc);
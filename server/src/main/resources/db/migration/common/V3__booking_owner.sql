@@ -0,0 +1,14 @@
+alter table bookings add column if not exists owner_id bigint;
+
+update bookings b set owner_id = (select i.owner_id from items i where i.id = b.item_id) where b.owner_id is null;
+
+alter table bookings alter column owner_id set not null;
+
+alter table items add constraint UNIQUE_ITEM_ID_OWNER unique (id, owner_id);
+
+alter table bookings add constraint FK_BOOKING_ITEM_OWNER foreign key (item_id, owner_id)
+    references items (id, owner_id) on delete cascade on update cascade;
+
+create index if not exists IDX_BOOKING_OWNER_START on bookings (owner_id, start_date desc, id desc);
+
+create index if not exists IDX_BOOKING_OWNER_STATUS_START on bookings (owner_id, status, start_date desc);
@@ -0,0 +1 @@
+create index if not exists IDX_BOOKING_OWNER_END on bookings (owner_id, end_date);
@@ -0,0 +1,55 @@
+alter table bookings add column if not exists counted_phase varchar(16);
+
+update bookings set counted_phase = case
+    when start_date > localtimestamp then 'FUTURE'
+    when end_date > localtimestamp then 'CURRENT'
+    else 'PAST' end
+where counted_phase is null;
+
+alter table bookings alter column counted_phase set not null;
+
+create index if not exists IDX_BOOKING_PHASE_START on bookings (counted_phase, start_date);
+
+create index if not exists IDX_BOOKING_PHASE_END on bookings (counted_phase, end_date);
+
+create table if not exists booking_counters (
+    user_id bigint not null,
+    user_role varchar(16) not null,
+    waiting_bookings bigint default 0 not null,
+    future_bookings bigint default 0 not null,
+    current_bookings bigint default 0 not null,
+    past_bookings bigint default 0 not null,
+    future_rejected bigint default 0 not null,
+    current_rejected bigint default 0 not null,
+    past_rejected bigint default 0 not null,
+    constraint PK_BOOKING_COUNTERS primary key (user_id, user_role),
+    constraint FK_BOOKING_COUNTERS_USER foreign key (user_id) references users on delete cascade
+);
+
+insert into booking_counters (user_id, user_role, waiting_bookings, future_bookings, current_bookings,
+                              past_bookings, future_rejected, current_rejected, past_rejected)
+select u.id,
+       'BOOKER',
+       count(case when b.status = 'WAITING' then 1 end),
+       count(case when b.counted_phase = 'FUTURE' then 1 end),
+       count(case when b.counted_phase = 'CURRENT' then 1 end),
+       count(case when b.counted_phase = 'PAST' then 1 end),
+       count(case when b.counted_phase = 'FUTURE' and b.status = 'REJECTED' then 1 end),
+       count(case when b.counted_phase = 'CURRENT' and b.status = 'REJECTED' then 1 end),
+       count(case when b.counted_phase = 'PAST' and b.status = 'REJECTED' then 1 end)
+from users u left join bookings b on b.booker_id = u.id
+group by u.id;
+
+insert into booking_counters (user_id, user_role, waiting_bookings, future_bookings, current_bookings,
+                              past_bookings, future_rejected, current_rejected, past_rejected)
+select u.id,
+       'OWNER',
+       count(case when b.status = 'WAITING' then 1 end),
+       count(case when b.counted_phase = 'FUTURE' then 1 end),
+       count(case when b.counted_phase = 'CURRENT' then 1 end),
+       count(case when b.counted_phase = 'PAST' then 1 end),
+       count(case when b.counted_phase = 'FUTURE' and b.status = 'REJECTED' then 1 end),
+       count(case when b.counted_phase = 'CURRENT' and b.status = 'REJECTED' then 1 end),
+       count(case when b.counted_phase = 'PAST' and b.status = 'REJECTED' then 1 end)
+from users u left join bookings b on b.owner_id = u.id
+group by u.id;
@@ -0,0 +1,5 @@
+alter table users add column if not exists updated_at timestamp default localtimestamp not null;
+
+alter table items add column if not exists updated_at timestamp default localtimestamp not null;
+
+alter table bookings add column if not exists updated_at timestamp default localtimestamp not null;
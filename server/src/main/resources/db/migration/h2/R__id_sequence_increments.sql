@@ -0,0 +1,9 @@
+alter sequence users_id_seq increment by ${id-allocation-size};
+
+alter sequence items_id_seq increment by ${id-allocation-size};
+
+alter sequence bookings_id_seq increment by ${id-allocation-size};
+
+alter sequence comments_id_seq increment by ${id-allocation-size};
+
+alter sequence requests_id_seq increment by ${id-allocation-size};
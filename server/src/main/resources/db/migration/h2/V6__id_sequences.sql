@@ -0,0 +1,7 @@
+create sequence if not exists users_id_seq start with 1 increment by ${id-allocation-size};
+
+create sequence if not exists items_id_seq start with 1 increment by ${id-allocation-size};
+
+create sequence if not exists comments_id_seq start with 1 increment by ${id-allocation-size};
+
+create sequence if not exists requests_id_seq start with 1 increment by ${id-allocation-size};
@@ -0,0 +1,9 @@
+alter table users alter column id set increment by ${id-allocation-size};
+
+alter table items alter column id set increment by ${id-allocation-size};
+
+alter table bookings alter column id set increment by ${id-allocation-size};
+
+alter table comments alter column id set increment by ${id-allocation-size};
+
+alter table requests alter column id set increment by ${id-allocation-size};
@@ -0,0 +1,5 @@
+create extension if not exists pg_trgm;
+
+create index if not exists IDX_ITEM_NAME_TRGM on items using gin (upper(name) gin_trgm_ops);
+
+create index if not exists IDX_ITEM_DESCRIPTION_TRGM on items using gin (upper(description) gin_trgm_ops);
@@ -0,0 +1 @@
+alter table bookings alter column id set increment by 50;
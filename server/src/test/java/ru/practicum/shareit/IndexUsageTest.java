@@ -0,0 +1,105 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.*;
+import static ru.practicum.shareit.util.Constants.SORT_BY_ID_ASC;
+import static ru.practicum.shareit.util.Constants.SORT_BY_START_DATE_AND_ID_DESC;
+
+@SpringBootTest
+@Import(StatementRecorder.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class IndexUsageTest {
+    private static final Set<Status> BLOCKING_STATUSES = Set.of(Status.WAITING, Status.APPROVED);
+
+    private final StatementRecorder recorder;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository requestRepository;
+
+    private final LocalDateTime current = LocalDateTime.now();
+
+    @Test
+    void shouldUseIndexesForBookerBookings() throws Exception {
+        for (State state : State.values()) {
+            assertIndexed(() -> bookingRepository.findSlice(
+                    byBookerId(1L).and(bookerState(state, current)), SORT_BY_START_DATE_AND_ID_DESC, 0, 10));
+        }
+        assertIndexed(() -> bookingRepository.findByBookerIdAndItemIdAndStatusAndEndBefore(
+                1L, 1L, Status.APPROVED, current));
+        assertIndexed(() -> bookingRepository.findVersionByBookerId(1L, current));
+    }
+
+    @Test
+    void shouldUseIndexesForOwnerBookings() throws Exception {
+        for (State state : State.values()) {
+            assertIndexed(() -> bookingRepository.findSlice(
+                    byOwnerId(1L).and(ownerState(state, current)), SORT_BY_START_DATE_AND_ID_DESC, 0, 10));
+        }
+        assertIndexed(() -> bookingRepository.findVersionByOwnerId(1L, current));
+    }
+
+    @Test
+    void shouldUseIndexesForItemBookings() throws Exception {
+        assertIndexed(() -> bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                1L, BLOCKING_STATUSES, current, current));
+        assertIndexed(() -> bookingRepository.findByItemIdInAndStatusInAndStartBeforeAndEndAfter(
+                List.of(1L, 2L), BLOCKING_STATUSES, current, current));
+    }
+
+    @Test
+    void shouldUseIndexesForCountedPhaseTransitions() throws Exception {
+        assertIndexed(() -> transactionTemplate.executeWithoutResult(status ->
+                bookingRepository.findFirst500ByCountedPhaseAndStartLessThanEqual(State.FUTURE, current)));
+        assertIndexed(() -> transactionTemplate.executeWithoutResult(status ->
+                bookingRepository.findFirst500ByCountedPhaseAndEndLessThanEqual(State.CURRENT, current)));
+    }
+
+    @Test
+    void shouldUseIndexesForItemsCommentsAndRequests() throws Exception {
+        assertIndexed(() -> itemRepository.findByOwnerId(1L, PageRequest.of(0, 10, SORT_BY_ID_ASC)));
+        assertIndexed(() -> itemRepository.findByItemRequestIdIn(List.of(1L, 2L)));
+        assertIndexed(() -> commentRepository.findByItemIdOrderByCreatedAsc(1L));
+        assertIndexed(() -> commentRepository.findByItemIdInOrderByCreatedAsc(List.of(1L, 2L)));
+        assertIndexed(() -> requestRepository.findByRequesterId(1L));
+        assertIndexed(() -> itemRepository.findVersionById(1L, current));
+        assertIndexed(() -> itemRepository.findVersionByOwnerId(1L, current));
+        assertIndexed(() -> requestRepository.findVersionById(1L));
+        assertIndexed(() -> requestRepository.findVersionByRequesterId(1L));
+    }
+
+    private void assertIndexed(Runnable call) throws Exception {
+        List<StatementRecorder.RecordedStatement> statements = recorder.record(call);
+
+        assertThat(statements, not(empty()));
+        for (StatementRecorder.RecordedStatement statement : statements) {
+            assertThat(statement.getSql(), statement.explain(dataSource),
+                    not(anyOf(containsString("tableScan"), containsString("Seq Scan"))));
+        }
+    }
+}
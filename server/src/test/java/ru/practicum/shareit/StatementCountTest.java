@@ -0,0 +1,233 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.transaction.TestTransaction;
+import ru.practicum.shareit.booking.dto.ResponseBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@Transactional
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class StatementCountTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService requestService;
+    private final ItemRepository itemRepository;
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Item item;
+    private Item second;
+    private Booking booking;
+    private ItemRequest request;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.add(User.builder().name("owner").email("owner@owner.owner").build());
+        booker = userService.add(User.builder().name("booker").email("booker@booker.booker").build());
+        User other = userService.add(User.builder().name("other").email("other@other.other").build());
+        request = requestService.add(ItemRequest.builder().description("description").build(), booker.getId());
+        requestService.add(ItemRequest.builder().description("other").build(), other.getId());
+        item = itemService.add(Item.builder()
+                .name("name")
+                .description("description")
+                .available(true)
+                .build(), owner.getId(), request.getId());
+        second = itemService.add(Item.builder()
+                .name("second")
+                .description("description")
+                .available(true)
+                .build(), owner.getId(), request.getId());
+        booking = bookingService.add(Booking.builder()
+                .status(Status.APPROVED)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .build(), item.getId(), booker.getId());
+        bookingService.add(Booking.builder()
+                .status(Status.APPROVED)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build(), item.getId(), booker.getId());
+        bookingService.add(Booking.builder()
+                .status(Status.APPROVED)
+                .start(LocalDateTime.now().minusDays(4))
+                .end(LocalDateTime.now().minusDays(3))
+                .build(), item.getId(), other.getId());
+        bookingService.add(Booking.builder()
+                .status(Status.WAITING)
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(4))
+                .build(), second.getId(), other.getId());
+        itemService.addComment(Comment.builder().text("text").build(), item.getId(), booker.getId());
+        itemService.addComment(Comment.builder().text("text").build(), item.getId(), other.getId());
+        em.flush();
+        em.clear();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldReadBookingByIdInTwoStatements() {
+        BookingMapper.toResponseBookingDto(bookingService.getByBookingIdAndUserId(booking.getId(), booker.getId()));
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+    }
+
+    @Test
+    void shouldReadItemOfOwnerInFourStatements() {
+        ItemMapper.toItemDto(itemService.getByItemId(item.getId(), owner.getId()));
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(4L));
+    }
+
+    @Test
+    void shouldReadItemsOfOwnerInThreeStatements() {
+        itemService.getByUserId(owner.getId(), 0, 10).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(3L));
+    }
+
+    @Test
+    void shouldReadRequestByIdInThreeStatements() {
+        ItemRequestMapper.toItemRequestDto(requestService.getById(request.getId(), owner.getId()));
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(3L));
+    }
+
+    @Test
+    void shouldReadRequestsOfUserInThreeStatements() {
+        requestService.getByUserId(booker.getId()).stream()
+                .map(ItemRequestMapper::toItemRequestDto)
+                .collect(Collectors.toList());
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(3L));
+    }
+
+    @Test
+    void shouldReadRequestsOfOtherUsersInThreeStatements() {
+        requestService.getAll(owner.getId(), 0, 10).stream()
+                .map(ItemRequestMapper::toItemRequestDto)
+                .collect(Collectors.toList());
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(3L));
+    }
+
+    @Test
+    void shouldCreateBookingsBatchWithCountersInSixStatements() {
+        List<Booking> bookings = IntStream.range(0, 10)
+                .mapToObj(i -> Booking.builder()
+                        .status(Status.WAITING)
+                        .item(i % 2 == 0 ? item : second)
+                        .start(LocalDateTime.now().plusDays(10 + i))
+                        .end(LocalDateTime.now().plusDays(10 + i).plusHours(1))
+                        .build())
+                .collect(Collectors.toList());
+
+        bookingService.addAll(bookings, booker.getId());
+        em.flush();
+
+        assertThat(statistics.getEntityInsertCount(), equalTo(10L));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(6L));
+    }
+
+    @Test
+    void shouldInsertItemsInJdbcBatches() {
+        List<Item> items = IntStream.range(0, 120)
+                .mapToObj(i -> Item.builder()
+                        .name("item " + i)
+                        .description("description")
+                        .available(true)
+                        .owner(owner)
+                        .build())
+                .collect(Collectors.toList());
+
+        itemRepository.saveAll(items);
+        em.flush();
+
+        assertThat(statistics.getEntityInsertCount(), equalTo(120L));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(3L));
+    }
+
+    @Test
+    void shouldCheckKnownUserExistenceWithoutStatement() {
+        requestService.getByUserId(booker.getId());
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+        statistics.clear();
+
+        requestService.getByUserId(booker.getId());
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+    }
+
+    @Test
+    void shouldReadBookerBookingsPageInTwoStatements() {
+        bookingService.getByStateAndUserId(State.ALL, booker.getId(), 0, 10).stream()
+                .map(BookingMapper::toResponseBookingDto)
+                .collect(Collectors.toList());
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+    }
+
+    @Test
+    void shouldReadOwnerBookingsPageInTwoStatements() {
+        List<ResponseBookingDto> bookings = bookingService.getAllByStateAndUserId(State.ALL, owner.getId(), 0, 10)
+                .stream()
+                .map(BookingMapper::toResponseBookingDto)
+                .collect(Collectors.toList());
+
+        assertThat(bookings.size(), equalTo(4));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+    }
+
+    @Test
+    void shouldReadOwnerBookingsCursorPageInTwoStatements() {
+        List<ResponseBookingDto> bookings = bookingService.getAllByStateAndUserId(State.ALL, owner.getId(), null, 10)
+                .stream()
+                .map(BookingMapper::toResponseBookingDto)
+                .collect(Collectors.toList());
+
+        assertThat(bookings.size(), equalTo(4));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+    }
+}
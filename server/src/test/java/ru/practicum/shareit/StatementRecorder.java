@@ -0,0 +1,121 @@
+package ru.practicum.shareit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestComponent;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Оборачивает DataSource и запоминает подготовленные запросы вместе с параметрами,
+ * чтобы тесты могли выполнить EXPLAIN ровно того SQL, который сгенерировал Hibernate.
+ */
+@TestComponent
+public class StatementRecorder implements BeanPostProcessor {
+    private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+    private volatile boolean recording;
+
+    public List<RecordedStatement> record(Runnable action) {
+        statements.clear();
+        recording = true;
+        try {
+            action.run();
+        } finally {
+            recording = false;
+        }
+        return List.copyOf(statements);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource) {
+            return proxy(DataSource.class, bean, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection ? wrap((Connection) result) : result;
+            });
+        }
+        return bean;
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (recording && method.getName().equals("prepareStatement")) {
+                RecordedStatement statement = new RecordedStatement((String) args[0]);
+                statements.add(statement);
+                return wrap((PreparedStatement) result, statement);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement wrap(PreparedStatement preparedStatement, RecordedStatement statement) {
+        return proxy(PreparedStatement.class, preparedStatement, (target, method, args) -> {
+            if (method.getName().startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer) {
+                statement.parameters.add(new Parameter(method, args));
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    @RequiredArgsConstructor
+    private static class Parameter {
+        private final Method setter;
+        private final Object[] args;
+    }
+
+    @RequiredArgsConstructor
+    public static class RecordedStatement {
+        @Getter
+        private final String sql;
+        private final List<Parameter> parameters = new CopyOnWriteArrayList<>();
+
+        public String explain(DataSource dataSource) throws Exception {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement explain = connection.prepareStatement("explain " + sql)) {
+                for (Parameter parameter : parameters) {
+                    parameter.setter.invoke(explain, parameter.args);
+                }
+                List<String> lines = new ArrayList<>();
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    while (resultSet.next()) {
+                        lines.add(resultSet.getString(1));
+                    }
+                }
+                return String.join("\n", lines);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Не удалось получить план запроса: " + sql, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotAvailableException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static ru.practicum.shareit.booking.model.Status.WAITING;
+
+@SpringBootTest
+@DirtiesContext
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConcurrencyTest {
+    private static final int ATTEMPTS = 2000;
+    private static final int THREADS = 16;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+
+    @Test
+    void shouldAcceptOnlyOneOfConcurrentOverlappingBookings() throws Exception {
+        User owner = userService.add(User.builder().name("owner").email("owner@owner.owner").build());
+        User booker = userService.add(User.builder().name("booker").email("booker@booker.booker").build());
+        Item item = itemService.add(Item.builder()
+                .name("name")
+                .description("description")
+                .available(true)
+                .build(), owner.getId(), null);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+
+        for (int i = 0; i < ATTEMPTS; i++) {
+            Booking booking = Booking.builder()
+                    .start(start.plusMinutes(i % 60))
+                    .end(start.plusHours(2))
+                    .status(WAITING)
+                    .build();
+            attempts.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    bookingService.add(booking, item.getId(), booker.getId());
+                    return true;
+                } catch (NotAvailableException e) {
+                    return false;
+                }
+            }));
+        }
+        startSignal.countDown();
+        int accepted = 0;
+        for (Future<Boolean> attempt : attempts) {
+            if (attempt.get()) {
+                accepted++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(accepted, equalTo(1));
+        assertThat(bookingRepository.count(), equalTo(1L));
+    }
+}
@@ -8,10 +8,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingResult;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingCounterService;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.etag.ETagService;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -19,13 +26,20 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.Constants.NEXT_CURSOR_HEADER;
 import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -35,6 +49,10 @@ public class BookingControllerTest {
     ObjectMapper mapper;
     @MockBean
     BookingService bookingService;
+    @MockBean
+    BookingCounterService bookingCounterService;
+    @MockBean
+    ETagService eTagService;
     @Autowired
     private MockMvc mvc;
     private Booking booking;
@@ -95,6 +113,68 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.item").isNotEmpty());
     }
 
+    @Test
+    void shouldSaveBookingsBatchWithPerEntryResults() throws Exception {
+        when(bookingService.addAll(anyList(), anyLong()))
+                .thenReturn(List.of(BookingResult.created(booking),
+                        BookingResult.failed(new NotFoundException("Вещь с id 2 не найдена"))));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(requestBookingDto, requestBookingDto)))
+                        .header(REQUEST_HEADER_USER_ID, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].booking.id", is(1)))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].status", is(404)))
+                .andExpect(jsonPath("$[1].error", is("Вещь с id 2 не найдена")));
+    }
+
+    @Test
+    void shouldExportOwnerBookingsAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Booking> consumer = invocation.getArgument(1);
+            consumer.accept(booking);
+            return null;
+        }).when(bookingService).exportByOwnerId(anyLong(), any());
+
+        mvc.perform(get("/bookings/owner/export")
+                        .header(REQUEST_HEADER_USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        mapper.writeValueAsString(BookingMapper.toResponseBookingDto(booking)) + "\n"));
+    }
+
+    @Test
+    void shouldReturnOwnerBookingsSummary() throws Exception {
+        when(bookingCounterService.getOwnerSummary(anyLong()))
+                .thenReturn(Map.of(State.ALL, 3L, State.WAITING, 1L, State.FUTURE, 2L));
+
+        mvc.perform(get("/bookings/owner/summary")
+                        .header(REQUEST_HEADER_USER_ID, 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ALL", is(3)))
+                .andExpect(jsonPath("$.WAITING", is(1)))
+                .andExpect(jsonPath("$.FUTURE", is(2)));
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenExportingBookingsOfUnknownUser() throws Exception {
+        doThrow(new NotFoundException("Пользователь с id 1 не найден"))
+                .when(bookingService).exportByBookerId(anyLong(), any());
+
+        mvc.perform(get("/bookings/export")
+                        .header(REQUEST_HEADER_USER_ID, 1))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Пользователь с id 1 не найден")));
+    }
+
     @Test
     void shouldReturnBookingAfterChangeStatus() throws Exception {
         when(bookingService.bookingDecision(anyLong(), anyLong(), anyBoolean()))
@@ -171,4 +251,49 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].booker").isNotEmpty())
                 .andExpect(jsonPath("$[0].item").isNotEmpty());
     }
+
+    @Test
+    void shouldReturnBookingsPageWithNextCursor() throws Exception {
+        when(bookingService.getByStateAndUserId(any(), anyLong(), nullable(BookingCursor.class), anyInt()))
+                .thenReturn(List.of(booking));
+
+        mvc.perform(get("/bookings")
+                        .header(REQUEST_HEADER_USER_ID, 1)
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER, BookingCursor.encode(booking)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    void shouldReturnLastOwnerBookingsPageWithoutNextCursor() throws Exception {
+        when(bookingService.getAllByStateAndUserId(any(), anyLong(), any(BookingCursor.class), anyInt()))
+                .thenReturn(List.of(booking));
+
+        mvc.perform(get("/bookings/owner")
+                        .header(REQUEST_HEADER_USER_ID, 1)
+                        .param("cursor", BookingCursor.encode(booking))
+                        .param("size", "5")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    void shouldReturnBadRequestForMalformedCursor() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header(REQUEST_HEADER_USER_ID, 1)
+                        .param("cursor", "not-a-cursor")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
 }
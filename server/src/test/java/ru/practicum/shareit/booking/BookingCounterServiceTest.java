@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingCounterRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingCounterServiceImpl;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingCounterServiceTest {
+    @Mock
+    private BookingCounterRepository counterRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private EntityManager entityManager;
+    private BookingCounterServiceImpl bookingCounterService;
+    private LocalDateTime current;
+
+    @BeforeEach
+    void setUp() {
+        bookingCounterService = new BookingCounterServiceImpl(counterRepository, bookingRepository, transactionManager,
+                entityManager);
+        current = LocalDateTime.now();
+    }
+
+    @Test
+    void shouldCommitEveryTransitionChunk() {
+        List<Booking> chunk = IntStream.range(0, 500)
+                .mapToObj(i -> started(i, 1L + i % 3, 10L))
+                .collect(Collectors.toList());
+        when(bookingRepository.findFirst500ByCountedPhaseAndStartLessThanEqual(State.FUTURE, current))
+                .thenReturn(chunk)
+                .thenReturn(List.of(started(500, 1L, 10L)));
+        when(bookingRepository.findFirst500ByCountedPhaseAndEndLessThanEqual(State.CURRENT, current))
+                .thenReturn(List.of());
+
+        bookingCounterService.transition(current);
+
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(3)).commit(any());
+        verify(bookingRepository, times(2)).findFirst500ByCountedPhaseAndStartLessThanEqual(State.FUTURE, current);
+    }
+
+    @Test
+    void shouldUpdateCountersInKeyOrder() {
+        when(bookingRepository.findFirst500ByCountedPhaseAndStartLessThanEqual(State.FUTURE, current))
+                .thenReturn(List.of(started(1, 3L, 2L), started(2, 1L, 2L), started(3, 2L, 4L)));
+        when(bookingRepository.findFirst500ByCountedPhaseAndEndLessThanEqual(State.CURRENT, current))
+                .thenReturn(List.of());
+
+        bookingCounterService.transition(current);
+
+        InOrder inOrder = inOrder(counterRepository);
+        inOrder.verify(counterRepository).add(eq(1L), eq(BookingRole.BOOKER), any());
+        inOrder.verify(counterRepository).add(eq(2L), eq(BookingRole.BOOKER), any());
+        inOrder.verify(counterRepository).add(eq(2L), eq(BookingRole.OWNER), any());
+        inOrder.verify(counterRepository).add(eq(3L), eq(BookingRole.BOOKER), any());
+        inOrder.verify(counterRepository).add(eq(4L), eq(BookingRole.OWNER), any());
+        verify(counterRepository, times(5)).add(anyLong(), any(), any());
+    }
+
+    private Booking started(long id, long bookerId, long ownerId) {
+        return Booking.builder()
+                .id(id)
+                .start(current.minusHours(1))
+                .end(current.plusHours(1))
+                .status(Status.APPROVED)
+                .countedPhase(State.FUTURE)
+                .booker(User.builder().id(bookerId).build())
+                .owner(User.builder().id(ownerId).build())
+                .build();
+    }
+}
@@ -7,8 +7,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.service.BookingCounterService;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
@@ -19,7 +21,9 @@ import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -35,6 +39,7 @@ public class BookingIntegrationTest {
     private final ItemService itemService;
     private final UserService userService;
     private final BookingService bookingService;
+    private final BookingCounterService bookingCounterService;
     private final EntityManager em;
     private Item item;
     private User booker;
@@ -146,4 +151,101 @@ public class BookingIntegrationTest {
         assertThat(bookings.size(), equalTo(1));
         assertThat(bookings.get(0).getId(), equalTo(1L));
     }
+
+    @Test
+    @DirtiesContext
+    void shouldPageBookingsWithCursor() {
+        bookingService.add(booking, 1L, 2L);
+        bookingService.add(booking.toBuilder().start(start.plusDays(2)).end(end.plusDays(2)).build(), 1L, 2L);
+        bookingService.add(booking.toBuilder().start(start.plusDays(4)).end(end.plusDays(4)).build(), 1L, 2L);
+        em.flush();
+        em.clear();
+
+        List<Booking> firstPage = bookingService.getByStateAndUserId(State.FUTURE, 2L, null, 2);
+        List<Booking> secondPage = bookingService.getByStateAndUserId(State.FUTURE,
+                2L,
+                BookingCursor.decode(BookingCursor.encode(firstPage.get(1))),
+                2);
+        List<Booking> ownerPage = bookingService.getAllByStateAndUserId(State.ALL,
+                1L,
+                BookingCursor.decode(BookingCursor.encode(firstPage.get(0))),
+                5);
+
+        assertThat(firstPage.size(), equalTo(2));
+        assertThat(firstPage.get(0).getId(), equalTo(3L));
+        assertThat(firstPage.get(1).getId(), equalTo(2L));
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(secondPage.get(0).getId(), equalTo(1L));
+        assertThat(ownerPage.size(), equalTo(2));
+        assertThat(ownerPage.get(0).getId(), equalTo(2L));
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldExportAllBookingsInStartOrder() {
+        for (int i = 0; i < 1200; i++) {
+            bookingService.add(booking.toBuilder().start(start.plusDays(2L * i)).end(end.plusDays(2L * i)).build(), 1L, 2L);
+        }
+        em.flush();
+        em.clear();
+        List<Long> bookerIds = new ArrayList<>();
+        List<Long> ownerIds = new ArrayList<>();
+
+        bookingService.exportByBookerId(2L, exported -> bookerIds.add(exported.getId()));
+        bookingService.exportByOwnerId(1L, exported -> ownerIds.add(exported.getId()));
+
+        assertThat(bookerIds.size(), equalTo(1200));
+        assertThat(bookerIds.get(0), equalTo(1200L));
+        assertThat(bookerIds.get(1199), equalTo(1L));
+        assertThat(ownerIds, equalTo(bookerIds));
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldKeepSummaryInLineWithStateQueries() {
+        LocalDateTime current = LocalDateTime.now();
+        bookingService.add(booking.toBuilder().status(APPROVED)
+                .start(current.minusDays(3)).end(current.minusDays(2)).build(), 1L, 2L);
+        bookingService.add(booking.toBuilder().status(APPROVED)
+                .start(current.minusHours(1)).end(current.plusHours(1)).build(), 1L, 2L);
+        bookingService.add(booking.toBuilder()
+                .start(current.plusDays(3)).end(current.plusDays(4)).build(), 1L, 2L);
+        bookingService.add(booking.toBuilder()
+                .start(current.plusDays(5)).end(current.plusDays(6)).build(), 1L, 2L);
+        bookingService.bookingDecision(4L, 1L, false);
+
+        Map<State, Long> bookerSummary = bookingCounterService.getBookerSummary(2L);
+        Map<State, Long> ownerSummary = bookingCounterService.getOwnerSummary(1L);
+
+        for (State state : State.values()) {
+            assertThat(state.name(), bookerSummary.get(state),
+                    equalTo((long) bookingService.getByStateAndUserId(state, 2L, 0, 10).size()));
+            assertThat(state.name(), ownerSummary.get(state),
+                    equalTo((long) bookingService.getAllByStateAndUserId(state, 1L, 0, 10).size()));
+        }
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldMoveCountersWhenBookingsStartAndEnd() {
+        LocalDateTime current = LocalDateTime.now();
+        bookingService.add(booking.toBuilder().start(current.plusHours(1)).end(current.plusHours(2)).build(), 1L, 2L);
+        bookingService.add(booking.toBuilder().start(current.plusHours(3)).end(current.plusHours(5)).build(), 1L, 2L);
+        bookingService.add(booking.toBuilder().start(current.plusDays(1)).end(current.plusDays(2)).build(), 1L, 2L);
+
+        bookingCounterService.transition(current.plusHours(4));
+        bookingService.bookingDecision(2L, 1L, false);
+        Map<State, Long> bookerSummary = bookingCounterService.getBookerSummary(2L);
+        Map<State, Long> ownerSummary = bookingCounterService.getOwnerSummary(1L);
+
+        assertThat(bookerSummary.get(State.ALL), equalTo(3L));
+        assertThat(bookerSummary.get(State.PAST), equalTo(1L));
+        assertThat(bookerSummary.get(State.CURRENT), equalTo(1L));
+        assertThat(bookerSummary.get(State.FUTURE), equalTo(1L));
+        assertThat(bookerSummary.get(State.WAITING), equalTo(2L));
+        assertThat(bookerSummary.get(State.REJECTED), equalTo(1L));
+        assertThat(ownerSummary.get(State.PAST), equalTo(1L));
+        assertThat(ownerSummary.get(State.CURRENT), equalTo(1L));
+        assertThat(ownerSummary.get(State.FUTURE), equalTo(1L));
+    }
 }
@@ -8,9 +8,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingResult;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingCounterService;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -22,11 +24,16 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +48,8 @@ public class BookingServiceTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private BookingCounterService bookingCounterService;
     private Item item;
     private User user;
     private Booking booking;
@@ -71,6 +80,7 @@ public class BookingServiceTest {
                 .id(1L)
                 .booker(user)
                 .item(item)
+                .owner(user)
                 .status(Status.WAITING)
                 .start(start)
                 .end(end)
@@ -83,12 +93,15 @@ public class BookingServiceTest {
                 .thenReturn(Optional.of(user));
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
+        when(bookingRepository.findLockedById(anyLong()))
+                .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () ->
                 bookingService.getByBookingIdAndUserId(1L, 1L));
         assertThrows(NotFoundException.class, () ->
                 bookingService.bookingDecision(1L, 1L, anyBoolean()));
-        verify(bookingRepository, times(2)).findById(anyLong());
+        verify(bookingRepository, times(1)).findById(anyLong());
+        verify(bookingRepository, times(1)).findLockedById(anyLong());
     }
 
     @Test
@@ -116,12 +129,12 @@ public class BookingServiceTest {
     void shouldThrowItemNotFoundException() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findLockedById(anyLong()))
                 .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () ->
                 bookingService.add(booking, 1L, 1L));
-        verify(itemRepository, times(1)).findById(anyLong());
+        verify(itemRepository, times(1)).findLockedById(anyLong());
     }
 
     @Test
@@ -132,13 +145,13 @@ public class BookingServiceTest {
         assertThrows(NotFoundException.class, () ->
                 bookingService.add(booking, 1L, 1L));
         verify(userRepository, times(1)).findById(anyLong());
-        verify(itemRepository, times(1)).findById(anyLong());
+        verify(itemRepository, times(1)).findLockedById(anyLong());
     }
 
     @Test
     void shouldThrowItemNotAvailableException() {
         item.setAvailable(false);
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findLockedById(anyLong()))
                 .thenReturn(Optional.of(item));
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
@@ -146,12 +159,12 @@ public class BookingServiceTest {
         assertThrows(NotAvailableException.class, () ->
                 bookingService.add(booking, 1L, 2L));
         verify(userRepository, times(1)).findById(anyLong());
-        verify(itemRepository, times(1)).findById(anyLong());
+        verify(itemRepository, times(1)).findLockedById(anyLong());
     }
 
     @Test
     void shouldThrowTimeNotAvailableException() {
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findLockedById(anyLong()))
                 .thenReturn(Optional.of(item));
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
@@ -161,12 +174,28 @@ public class BookingServiceTest {
         assertThrows(NotAvailableException.class, () ->
                 bookingService.add(booking, 1L, 2L));
         verify(userRepository, times(1)).findById(anyLong());
-        verify(itemRepository, times(1)).findById(anyLong());
+        verify(itemRepository, times(1)).findLockedById(anyLong());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenBookingOverlapsExisting() {
+        when(itemRepository.findLockedById(anyLong()))
+                .thenReturn(Optional.of(item));
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(anyLong(), any(), any(), any()))
+                .thenReturn(true);
+
+        assertThrows(NotAvailableException.class, () ->
+                bookingService.add(booking, 1L, 2L));
+        verify(bookingRepository, times(1))
+                .existsByItemIdAndStatusInAndStartBeforeAndEndAfter(1L, Set.of(Status.WAITING, Status.APPROVED), end, start);
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
     void shouldSaveBooking() {
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findLockedById(anyLong()))
                 .thenReturn(Optional.of(item));
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
@@ -175,10 +204,44 @@ public class BookingServiceTest {
 
         assertThat(booking, equalTo(bookingService.add(booking, 1L, 2L)));
         verify(userRepository, times(1)).findById(anyLong());
-        verify(itemRepository, times(1)).findById(anyLong());
+        verify(itemRepository, times(1)).findLockedById(anyLong());
         verify(bookingRepository, times(1)).save(any());
     }
 
+    @Test
+    void shouldSaveBatchAndReportFailedEntries() {
+        User booker = User.builder().id(2L).build();
+        Booking entry = Booking.builder().status(Status.WAITING).item(Item.builder().id(1L).build()).build();
+        Booking existing = booking.toBuilder().start(end.plusDays(4)).end(end.plusDays(7)).build();
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booker));
+        when(itemRepository.findLockedByIdInOrderById(any()))
+                .thenReturn(List.of(item));
+        when(bookingRepository.findByItemIdInAndStatusInAndStartBeforeAndEndAfter(any(), any(), any(), any()))
+                .thenReturn(List.of(existing));
+
+        List<BookingResult> results = bookingService.addAll(List.of(
+                entry.toBuilder().start(start).end(end).build(),
+                entry.toBuilder().start(start.plusHours(1)).end(end.plusDays(1)).build(),
+                entry.toBuilder().item(Item.builder().id(2L).build()).start(start).end(end).build(),
+                entry.toBuilder().start(end.plusDays(5)).end(end.plusDays(6)).build(),
+                entry.toBuilder().start(end).end(end.plusDays(1)).build()), 2L);
+
+        assertThat(results.size(), equalTo(5));
+        assertThat(results.get(0).getError(), nullValue());
+        assertThat(results.get(0).getBooking().getBooker(), equalTo(booker));
+        assertThat(results.get(0).getBooking().getOwner(), equalTo(user));
+        assertThat(results.get(1).getError(), instanceOf(NotAvailableException.class));
+        assertThat(results.get(2).getError(), instanceOf(NotFoundException.class));
+        assertThat(results.get(3).getError(), instanceOf(NotAvailableException.class));
+        assertThat(results.get(4).getError(), nullValue());
+        verify(itemRepository, times(1)).findLockedByIdInOrderById(Set.of(1L, 2L));
+        verify(bookingRepository, times(1)).findByItemIdInAndStatusInAndStartBeforeAndEndAfter(
+                Set.of(1L, 2L), Set.of(Status.WAITING, Status.APPROVED), end.plusDays(6), start);
+        verify(bookingRepository, times(1))
+                .saveAll(List.of(results.get(0).getBooking(), results.get(4).getBooking()));
+    }
+
     @Test
     void shouldThrowExceptionWhenUserNotBookerOrOwner() {
         when(userRepository.findById(anyLong()))
@@ -196,13 +259,13 @@ public class BookingServiceTest {
     void shouldThrowExceptionWhenNotOwnerTryToChangeStatus() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(User.builder().id(2).build()));
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findLockedById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
         assertThrows(NotFoundException.class, () ->
                 bookingService.bookingDecision(1L, 1L, true));
         verify(userRepository, times(1)).findById(anyLong());
-        verify(bookingRepository, times(1)).findById(anyLong());
+        verify(bookingRepository, times(1)).findLockedById(anyLong());
     }
 
     @Test
@@ -211,13 +274,13 @@ public class BookingServiceTest {
 
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findLockedById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
         assertThrows(NotAvailableException.class, () ->
                 bookingService.bookingDecision(1L, 1L, true));
         verify(userRepository, times(1)).findById(anyLong());
-        verify(bookingRepository, times(1)).findById(anyLong());
+        verify(bookingRepository, times(1)).findLockedById(anyLong());
     }
 
     @Test
@@ -226,7 +289,7 @@ public class BookingServiceTest {
 
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findLockedById(anyLong()))
                 .thenReturn(Optional.of(booking));
         when(bookingRepository.save(any()))
                 .thenReturn(booking);
@@ -239,7 +302,7 @@ public class BookingServiceTest {
         assertThat(booking,
                 equalTo(bookingService.bookingDecision(1L, 1L, true)));
         verify(userRepository, times(2)).findById(anyLong());
-        verify(bookingRepository, times(2)).findById(anyLong());
+        verify(bookingRepository, times(2)).findLockedById(anyLong());
         verify(bookingRepository, times(2)).save(any());
     }
 
@@ -248,15 +311,7 @@ public class BookingServiceTest {
         List<Booking> bookings = List.of(booking);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findByBookerId(anyLong(), any()))
-                .thenReturn(bookings);
-        when(bookingRepository.findByBookerIdAndStartBeforeAndEndAfter(anyLong(), any(), any(), any()))
-                .thenReturn(bookings);
-        when(bookingRepository.findByBookerIdAndEndBefore(anyLong(), any(), any()))
-                .thenReturn(bookings);
-        when(bookingRepository.findByBookerIdAndStartAfter(anyLong(), any(), any()))
-                .thenReturn(bookings);
-        when(bookingRepository.findByBookerIdAndStatus(anyLong(), any(), any()))
+        when(bookingRepository.findSlice(any(), any(), anyInt(), anyInt()))
                 .thenReturn(bookings);
 
         assertThat(bookings, equalTo(bookingService.getByStateAndUserId(State.ALL, 1L, 0, 5)));
@@ -271,6 +326,9 @@ public class BookingServiceTest {
 
         booking.setStatus(Status.REJECTED);
         assertThat(bookings, equalTo(bookingService.getByStateAndUserId(State.REJECTED, 1L, 0, 5)));
+        assertThat(bookings, equalTo(bookingService.getByStateAndUserId(State.ALL, 1L, 7, 5)));
+        verify(bookingRepository, times(6)).findSlice(any(), any(), eq(0), eq(5));
+        verify(bookingRepository).findSlice(any(), any(), eq(5), eq(5));
     }
 
     @Test
@@ -278,15 +336,7 @@ public class BookingServiceTest {
         List<Booking> bookings = List.of(booking);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findByItem_OwnerId(anyLong(), any()))
-                .thenReturn(bookings);
-        when(bookingRepository.findByItem_OwnerIdAndStartBeforeAndEndAfter(anyLong(), any(), any(), any()))
-                .thenReturn(bookings);
-        when(bookingRepository.findByItem_OwnerIdAndStartBeforeAndStatusNot(anyLong(), any(), any(), any()))
-                .thenReturn(bookings);
-        when(bookingRepository.findByItem_OwnerIdAndStartAfterAndStatusNot(anyLong(), any(), any(), any()))
-                .thenReturn(bookings);
-        when(bookingRepository.findByItem_OwnerIdAndStatus(anyLong(), any(), any()))
+        when(bookingRepository.findSlice(any(), any(), anyInt(), anyInt()))
                 .thenReturn(bookings);
 
         assertThat(bookings,
@@ -307,5 +357,9 @@ public class BookingServiceTest {
         booking.setStatus(Status.REJECTED);
         assertThat(bookings,
                 equalTo(bookingService.getAllByStateAndUserId(State.REJECTED, 1L, 0, 5)));
+        assertThat(bookings,
+                equalTo(bookingService.getAllByStateAndUserId(State.ALL, 1L, 7, 5)));
+        verify(bookingRepository, times(6)).findSlice(any(), any(), eq(0), eq(5));
+        verify(bookingRepository).findSlice(any(), any(), eq(5), eq(5));
     }
 }
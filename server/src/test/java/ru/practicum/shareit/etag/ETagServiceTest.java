@@ -0,0 +1,184 @@
+package ru.practicum.shareit.etag;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+@Transactional
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ETagServiceTest {
+    private final ETagService eTagService;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService requestService;
+    private final EntityManager em;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.add(User.builder().name("owner").email("owner@etag.test").build());
+        booker = userService.add(User.builder().name("booker").email("booker@etag.test").build());
+        item = itemService.add(Item.builder()
+                .name("name")
+                .description("description")
+                .available(true)
+                .build(), owner.getId(), null);
+        booking = bookingService.add(Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .status(Status.WAITING)
+                .build(), item.getId(), booker.getId());
+    }
+
+    @Test
+    void shouldKeepTagWhileNothingChanged() {
+        String etag = eTagService.forBookerBookings(request("/bookings", "state", "ALL"), booker.getId());
+
+        assertThat(eTagService.forBookerBookings(request("/bookings", "state", "ALL"), booker.getId()),
+                equalTo(etag));
+    }
+
+    @Test
+    void shouldTagEachQueryAndUserSeparately() {
+        String etag = eTagService.forBookerBookings(request("/bookings", "state", "ALL", "from", "0"), booker.getId());
+
+        assertThat(eTagService.forBookerBookings(request("/bookings", "from", "0", "state", "ALL"), booker.getId()),
+                equalTo(etag));
+        assertThat(eTagService.forBookerBookings(request("/bookings", "state", "PAST", "from", "0"), booker.getId()),
+                not(equalTo(etag)));
+        assertThat(eTagService.forBookerBookings(request("/bookings", "state", "ALL", "from", "0"), owner.getId()),
+                not(equalTo(etag)));
+    }
+
+    @Test
+    void shouldKeepTagOnUnrelatedWrites() {
+        String etag = eTagService.forBookerBookings(request("/bookings"), booker.getId());
+        User other = userService.add(User.builder().name("other").email("other@etag.test").build());
+        Item otherItem = itemService.add(Item.builder()
+                .name("other")
+                .description("other")
+                .available(true)
+                .build(), other.getId(), null);
+        bookingService.add(Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .status(Status.WAITING)
+                .build(), otherItem.getId(), owner.getId());
+
+        assertThat(eTagService.forBookerBookings(request("/bookings"), booker.getId()), equalTo(etag));
+    }
+
+    @Test
+    void shouldChangeTagWhenBookingDecided() {
+        String bookerTag = eTagService.forBookerBookings(request("/bookings"), booker.getId());
+        String ownerTag = eTagService.forOwnerBookings(request("/bookings/owner"), owner.getId());
+
+        bookingService.bookingDecision(booking.getId(), owner.getId(), true);
+
+        assertThat(eTagService.forBookerBookings(request("/bookings"), booker.getId()), not(equalTo(bookerTag)));
+        assertThat(eTagService.forOwnerBookings(request("/bookings/owner"), owner.getId()), not(equalTo(ownerTag)));
+    }
+
+    @Test
+    void shouldChangeTagWhenBookedItemRenamed() {
+        String etag = eTagService.forBookerBookings(request("/bookings"), booker.getId());
+
+        itemService.update(Item.builder().name("renamed").build(), item.getId(), owner.getId());
+
+        assertThat(eTagService.forBookerBookings(request("/bookings"), booker.getId()), not(equalTo(etag)));
+    }
+
+    @Test
+    void shouldChangeTagWhenBookingStarts() throws InterruptedException {
+        bookingService.add(Booking.builder()
+                .start(LocalDateTime.now().plusSeconds(1))
+                .end(LocalDateTime.now().plusHours(1))
+                .status(Status.WAITING)
+                .build(), item.getId(), booker.getId());
+        String etag = eTagService.forBookerBookings(request("/bookings", "state", "CURRENT"), booker.getId());
+
+        Thread.sleep(1100);
+
+        assertThat(eTagService.forBookerBookings(request("/bookings", "state", "CURRENT"), booker.getId()),
+                not(equalTo(etag)));
+    }
+
+    @Test
+    void shouldChangeItemTagWhenCommented() {
+        String itemTag = eTagService.forItem(request("/items/" + item.getId()), item.getId(), owner.getId());
+        String ownerTag = eTagService.forOwnerItems(request("/items"), owner.getId());
+
+        em.persist(Comment.builder()
+                .text("text")
+                .item(item)
+                .author(booker)
+                .created(LocalDateTime.now())
+                .build());
+
+        assertThat(eTagService.forItem(request("/items/" + item.getId()), item.getId(), owner.getId()),
+                not(equalTo(itemTag)));
+        assertThat(eTagService.forOwnerItems(request("/items"), owner.getId()), not(equalTo(ownerTag)));
+    }
+
+    @Test
+    void shouldChangeRequestTagsWhenItemOffered() {
+        ItemRequest itemRequest = requestService.add(ItemRequest.builder().description("need").build(),
+                booker.getId());
+        String requestTag = eTagService.forRequest(request("/requests/" + itemRequest.getId()),
+                itemRequest.getId(), booker.getId());
+        String requesterTag = eTagService.forRequesterRequests(request("/requests"), booker.getId());
+        String othersTag = eTagService.forOtherRequests(request("/requests/all"), owner.getId(), 0, 5);
+
+        itemService.add(Item.builder()
+                .name("offer")
+                .description("offer")
+                .available(true)
+                .build(), owner.getId(), itemRequest.getId());
+
+        assertThat(eTagService.forRequest(request("/requests/" + itemRequest.getId()),
+                itemRequest.getId(), booker.getId()), not(equalTo(requestTag)));
+        assertThat(eTagService.forRequesterRequests(request("/requests"), booker.getId()),
+                not(equalTo(requesterTag)));
+        assertThat(eTagService.forOtherRequests(request("/requests/all"), owner.getId(), 0, 5),
+                not(equalTo(othersTag)));
+    }
+
+    private static WebRequest request(String uri, String... parameters) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        for (int i = 0; i < parameters.length; i += 2) {
+            request.addParameter(parameters[i], parameters[i + 1]);
+        }
+        return new ServletWebRequest(request);
+    }
+}
@@ -6,8 +6,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.etag.ETagService;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
@@ -19,11 +22,19 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.util.Constants.REQUEST_HEADER_USER_ID;
@@ -34,6 +45,8 @@ public class ItemControllerTest {
     ObjectMapper mapper;
     @MockBean
     ItemService itemService;
+    @MockBean
+    ETagService eTagService;
     @Autowired
     private MockMvc mvc;
 
@@ -89,6 +102,49 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemDto.getAvailable())));
     }
 
+    @Test
+    void shouldImportItemsFromNdjson() throws Exception {
+        when(itemService.addAll(any(), anyLong()))
+                .thenAnswer(invocation -> invocation.<Stream<Item>>getArgument(0).count());
+
+        mvc.perform(post("/items/import")
+                        .content(mapper.writeValueAsString(itemDto) + "\n" + mapper.writeValueAsString(itemDto) + "\n")
+                        .header(REQUEST_HEADER_USER_ID, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)));
+    }
+
+    @Test
+    void shouldExportItemsAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Item> consumer = invocation.getArgument(1);
+            consumer.accept(item);
+            consumer.accept(item);
+            return null;
+        }).when(itemService).exportByUserId(anyLong(), any());
+        String line = mapper.writeValueAsString(itemDto.toBuilder().id(1L).build());
+
+        mvc.perform(get("/items/export")
+                        .header(REQUEST_HEADER_USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenExportingItemsOfUnknownUser() throws Exception {
+        doThrow(new NotFoundException("Пользователь с id 1 не найден"))
+                .when(itemService).exportByUserId(anyLong(), any());
+
+        mvc.perform(get("/items/export")
+                        .header(REQUEST_HEADER_USER_ID, 1))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Пользователь с id 1 не найден")));
+    }
+
     @Test
     void shouldReturnItemAfterUpdate() throws Exception {
         when(itemService.update(any(), anyLong(), anyLong()))
@@ -124,6 +180,36 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemDto.getAvailable())));
     }
 
+    @Test
+    void shouldReturnETagWithItem() throws Exception {
+        when(eTagService.forItem(any(), anyLong(), anyLong()))
+                .thenReturn("\"tag\"");
+        when(itemService.getByItemId(anyLong(), anyLong()))
+                .thenReturn(item);
+
+        mvc.perform(get("/items/{itemId}", 1)
+                        .header(REQUEST_HEADER_USER_ID, 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"tag\""))
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @Test
+    void shouldReturnNotModifiedWithoutLoadingItem() throws Exception {
+        when(eTagService.forItem(any(), anyLong(), anyLong()))
+                .thenReturn("\"tag\"");
+
+        mvc.perform(get("/items/{itemId}", 1)
+                        .header(REQUEST_HEADER_USER_ID, 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"tag\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"tag\""));
+
+        verify(itemService, never()).getByItemId(anyLong(), anyLong());
+    }
+
     @Test
     void shouldReturnItemsByUserId() throws Exception {
         when(itemService.getByUserId(anyLong(), anyInt(), anyInt()))
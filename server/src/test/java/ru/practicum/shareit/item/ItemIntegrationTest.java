@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
@@ -19,11 +20,18 @@ import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 @Transactional
 @SpringBootTest
@@ -110,6 +118,76 @@ public class ItemIntegrationTest {
         assertThat(items.get(0).getId(), equalTo(item.getId()));
     }
 
+    @Test
+    @DirtiesContext
+    void shouldReturnLastAndNextBookingsOfEveryItemByUserId() {
+        itemService.add(item, 1L, null);
+        itemService.add(item.toBuilder().id(0).name("second").build(), 1L, null);
+        userService.add(User.builder().name("booker").email("booker@booker.booker").build());
+        Booking booking = Booking.builder().status(Status.APPROVED).build();
+        bookingService.add(booking.toBuilder()
+                .start(LocalDateTime.now().minusDays(3))
+                .end(LocalDateTime.now().minusDays(2))
+                .build(), 1L, 2L);
+        bookingService.add(booking.toBuilder()
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .build(), 1L, 2L);
+        bookingService.add(booking.toBuilder()
+                .start(LocalDateTime.now().plusDays(2))
+                .end(LocalDateTime.now().plusDays(3))
+                .build(), 1L, 2L);
+        bookingService.add(booking.toBuilder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build(), 2L, 2L);
+        bookingService.add(booking.toBuilder()
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(4))
+                .build(), 2L, 2L);
+
+        List<Item> items = itemService.getByUserId(1L, 0, 5);
+
+        assertThat(items.size(), equalTo(2));
+        assertThat(items.get(0).getLastBooking().getId(), equalTo(2L));
+        assertThat(items.get(0).getNextBooking().getId(), equalTo(3L));
+        assertThat(items.get(1).getLastBooking(), nullValue());
+        assertThat(items.get(1).getNextBooking().getId(), equalTo(4L));
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldImportAndExportItemsOfUser() {
+        long imported = itemService.addAll(IntStream.range(0, 1200)
+                .mapToObj(i -> item.toBuilder().id(0).name("item " + i).build()), 1L);
+        List<String> exported = new ArrayList<>();
+
+        itemService.exportByUserId(1L, exportedItem -> exported.add(exportedItem.getName()));
+
+        assertThat(imported, equalTo(1200L));
+        assertThat(exported.size(), equalTo(1200));
+        assertThat(exported, equalTo(IntStream.range(0, 1200)
+                .mapToObj(i -> "item " + i)
+                .collect(Collectors.toList())));
+    }
+
+    @Test
+    @DirtiesContext
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void shouldImportItemsInSessionsOfBoundedSize() {
+        Map<EntityManager, Integer> rowsBySession = new IdentityHashMap<>();
+
+        long imported = itemService.addAll(IntStream.range(0, 1200)
+                .mapToObj(i -> item.toBuilder().id(0).name("item " + i).build())
+                .peek(row -> rowsBySession.merge(
+                        EntityManagerFactoryUtils.getTransactionalEntityManager(em.getEntityManagerFactory()),
+                        1, Integer::sum)), 1L);
+
+        assertThat(imported, equalTo(1200L));
+        assertThat(rowsBySession.size(), equalTo(3));
+        assertThat(Collections.max(rowsBySession.values()), equalTo(500));
+    }
+
     @Test
     @DirtiesContext
     void shouldReturnItemsByText() {
@@ -122,6 +200,23 @@ public class ItemIntegrationTest {
         assertThat(items.get(0).getName(), equalTo(item.getName()));
     }
 
+    @Test
+    @DirtiesContext
+    void shouldReturnItemsByTextPagedInIdOrder() {
+        itemService.add(item, 1L, null);
+        itemService.add(item.toBuilder().id(0).name("Дрель").description("Простая дрель").build(), 1L, null);
+        itemService.add(item.toBuilder().id(0).name("Отвёртка").description("Аккумуляторная").build(), 1L, null);
+        itemService.add(item.toBuilder().id(0).name("Дрель+").description("Аккумуляторная ДРЕЛЬ").build(), 1L, null);
+
+        List<Item> firstPage = itemService.searchByText("дРеЛь", 0, 1);
+        List<Item> secondPage = itemService.searchByText("дРеЛь", 1, 1);
+
+        assertThat(firstPage.size(), equalTo(1));
+        assertThat(firstPage.get(0).getId(), equalTo(2L));
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(secondPage.get(0).getId(), equalTo(4L));
+    }
+
     @Test
     @DirtiesContext
     void shouldSaveComment() {
@@ -20,12 +20,14 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static java.util.Collections.emptyList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -88,12 +90,14 @@ public class ItemServiceTest {
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
-        assertThrows(NotFoundException.class, () ->
+        NotFoundException e = assertThrows(NotFoundException.class, () ->
                 itemService.update(item, 1L, 1L));
         assertThrows(NotFoundException.class, () ->
                 itemService.getByItemId(1L, 1L));
         assertThrows(NotFoundException.class, () ->
                 itemService.addComment(any(), 1L, 1L));
+        // Этот текст разбирает негативный кэш gateway, менять его нужно вместе с NegativeCache
+        assertThat(e.getMessage(), equalTo("Вещь с id 1 не найдена"));
         verify(userRepository, times(3)).findById(anyLong());
     }
 
@@ -175,41 +179,54 @@ public class ItemServiceTest {
                 .thenReturn(Optional.of(user));
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
-        when(commentRepository.findByItemId(anyLong()))
-                .thenReturn(emptyList());
-        when(bookingRepository.findByItem_OwnerIdAndStartBeforeAndStatusNot(anyLong(), any(), any(), any()))
+        when(commentRepository.findByItemIdOrderByCreatedAsc(anyLong()))
                 .thenReturn(emptyList());
-        when(bookingRepository.findByItem_OwnerIdAndStartAfterAndStatusNot(anyLong(), any(), any(), any()))
+        when(bookingRepository.findLastAndNextByItemIdIn(anyCollection(), any()))
                 .thenReturn(emptyList());
 
         assertThat(item, equalTo(itemService.getByItemId(1L, 1L)));
         verify(userRepository, times(1)).findById(anyLong());
         verify(itemRepository, times(1)).findById(anyLong());
-        verify(commentRepository, times(1)).findByItemId(anyLong());
-        verify(bookingRepository, times(1))
-                .findByItem_OwnerIdAndStartBeforeAndStatusNot(anyLong(), any(), any(), any());
+        verify(commentRepository, times(1)).findByItemIdOrderByCreatedAsc(anyLong());
         verify(bookingRepository, times(1))
-                .findByItem_OwnerIdAndStartAfterAndStatusNot(anyLong(), any(), any(), any());
+                .findLastAndNextByItemIdIn(anyCollection(), any());
     }
 
     @Test
     void shouldReturnItemsByUserId() {
         when(itemRepository.findByOwnerId(anyLong(), any()))
                 .thenReturn(List.of(item));
-        when(commentRepository.findByItemIdIn(anyList()))
+        when(commentRepository.findByItemIdInOrderByCreatedAsc(anyList()))
                 .thenReturn(emptyList());
-        when(bookingRepository.findByItem_OwnerIdAndStartBeforeAndStatusNot(anyLong(), any(), any(), any()))
-                .thenReturn(emptyList());
-        when(bookingRepository.findByItem_OwnerIdAndStartAfterAndStatusNot(anyLong(), any(), any(), any()))
+        when(bookingRepository.findLastAndNextByItemIdIn(anyCollection(), any()))
                 .thenReturn(emptyList());
 
         assertThat(List.of(item), equalTo(itemService.getByUserId(1L, 0, 5)));
         verify(itemRepository, times(1)).findByOwnerId(anyLong(), any());
-        verify(commentRepository, times(1)).findByItemIdIn(anyList());
-        verify(bookingRepository, times(1))
-                .findByItem_OwnerIdAndStartBeforeAndStatusNot(anyLong(), any(), any(), any());
+        verify(commentRepository, times(1)).findByItemIdInOrderByCreatedAsc(anyList());
         verify(bookingRepository, times(1))
-                .findByItem_OwnerIdAndStartAfterAndStatusNot(anyLong(), any(), any(), any());
+                .findLastAndNextByItemIdIn(anyCollection(), any());
+    }
+
+    @Test
+    void shouldSetLastAndNextBookingsForEachItem() {
+        Item secondItem = item.toBuilder().id(2L).build();
+        Booking lastOfFirst = Booking.builder().id(1L).item(item).start(LocalDateTime.now().minusDays(1)).build();
+        Booking nextOfFirst = Booking.builder().id(2L).item(item).start(LocalDateTime.now().plusDays(1)).build();
+        Booking lastOfSecond = Booking.builder().id(3L).item(secondItem).start(LocalDateTime.now().minusDays(2)).build();
+        when(itemRepository.findByOwnerId(anyLong(), any()))
+                .thenReturn(List.of(item, secondItem));
+        when(commentRepository.findByItemIdInOrderByCreatedAsc(anyList()))
+                .thenReturn(emptyList());
+        when(bookingRepository.findLastAndNextByItemIdIn(anyCollection(), any()))
+                .thenReturn(List.of(lastOfFirst, nextOfFirst, lastOfSecond));
+
+        List<Item> items = itemService.getByUserId(1L, 0, 5);
+
+        assertThat(items.get(0).getLastBooking(), equalTo(lastOfFirst));
+        assertThat(items.get(0).getNextBooking(), equalTo(nextOfFirst));
+        assertThat(items.get(1).getLastBooking(), equalTo(lastOfSecond));
+        assertThat(items.get(1).getNextBooking(), nullValue());
     }
 
     @Test
@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.etag.ETagService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -34,6 +35,8 @@ public class ItemRequestControllerTest {
     ObjectMapper mapper;
     @MockBean
     ItemRequestService requestService;
+    @MockBean
+    ETagService eTagService;
     @Autowired
     private MockMvc mvc;
     private ItemRequest request;
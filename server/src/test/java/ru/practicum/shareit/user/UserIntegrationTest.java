@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.transaction.TestTransaction;
+import ru.practicum.shareit.exception.AlreadyExistException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -16,6 +18,7 @@ import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest
@@ -47,6 +50,15 @@ public class UserIntegrationTest {
         assertThat(savedUser.getEmail(), equalTo(user.getEmail()));
     }
 
+    @Test
+    @DirtiesContext
+    void shouldThrowAlreadyExistExceptionForDuplicateEmail() {
+        userService.add(user);
+
+        assertThrows(AlreadyExistException.class, () ->
+                userService.add(User.builder().name("other").email(user.getEmail()).build()));
+    }
+
     @Test
     @DirtiesContext
     void shouldUpdateUser() {
@@ -96,4 +108,22 @@ public class UserIntegrationTest {
 
         assertThat(userService.getAll().isEmpty(), equalTo(true));
     }
+
+    @Test
+    @DirtiesContext
+    void shouldKeepCachedUsersWhenAnotherUserAdded() {
+        userService.add(user);
+        commit();
+
+        userService.add(User.builder().name("other").email("other@other.other").build());
+        commit();
+
+        assertThat(em.getEntityManagerFactory().getCache().contains(User.class, 1L), equalTo(true));
+    }
+
+    private static void commit() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+    }
 }
@@ -6,12 +6,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.service.BookingCounterService;
 import ru.practicum.shareit.exception.AlreadyExistException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -26,6 +33,12 @@ public class UserServiceTest {
     private UserServiceImpl userService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private BookingCounterService bookingCounterService;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache cache;
 
     private User user;
 
@@ -49,10 +62,12 @@ public class UserServiceTest {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
-        assertThrows(NotFoundException.class, () ->
+        NotFoundException e = assertThrows(NotFoundException.class, () ->
                 userService.getById(1L));
         assertThrows(NotFoundException.class, () ->
                 userService.update(user, 1L));
+        // Этот текст разбирает негативный кэш gateway, менять его нужно вместе с NegativeCache
+        assertThat(e.getMessage(), equalTo("Пользователь с id 1 не найден"));
         verify(userRepository, times(2)).findById(anyLong());
     }
 
@@ -68,13 +83,23 @@ public class UserServiceTest {
         verify(userRepository, times(1)).findById(anyLong());
     }
 
+    @Test
+    void shouldThrowEmailAlreadyExistExceptionWhenAdd() {
+        when(userRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("users_email_key"));
+
+        assertThrows(AlreadyExistException.class, () ->
+                userService.add(user));
+        verify(bookingCounterService, never()).open(anyLong());
+    }
+
     @Test
     void shouldSaveUser() {
-        when(userRepository.save(any()))
+        when(userRepository.saveAndFlush(any()))
                 .thenReturn(user);
 
         assertThat(user, equalTo(userService.add(user)));
-        verify(userRepository, times(1)).save(any());
+        verify(userRepository, times(1)).saveAndFlush(any());
     }
 
     @Test
@@ -100,4 +125,31 @@ public class UserServiceTest {
         assertThat(user, equalTo(userService.getById(1L)));
         verify(userRepository, times(1)).findById(anyLong());
     }
+
+    @Test
+    void shouldEvictCachedItemsOfDeletedUser() {
+        when(entityManagerFactory.getCache())
+                .thenReturn(cache);
+
+        userService.delete(1L);
+
+        verify(userRepository, times(1)).deleteById(1L);
+        verify(cache, times(1)).evict(Item.class);
+    }
+
+    @Test
+    void shouldEvictCachedItemsOnlyAfterCommit() {
+        when(entityManagerFactory.getCache())
+                .thenReturn(cache);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.delete(1L);
+
+            verify(cache, never()).evict(Item.class);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(cache, times(1)).evict(Item.class);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+public class GroupingUtilTest {
+
+    @Test
+    void shouldAttachChildrenToTheirParentsPreservingOrder() {
+        ItemRequest first = ItemRequest.builder().id(1L).build();
+        ItemRequest second = ItemRequest.builder().id(2L).build();
+        ItemRequest withoutItems = ItemRequest.builder().id(3L).build();
+        Item firstItem = Item.builder().id(1L).itemRequestId(1L).build();
+        Item secondItem = Item.builder().id(2L).itemRequestId(2L).build();
+        Item thirdItem = Item.builder().id(3L).itemRequestId(1L).build();
+        Item notRequested = Item.builder().id(4L).build();
+
+        GroupingUtil.attach(List.of(first, second, withoutItems),
+                ItemRequest::getId,
+                List.of(firstItem, secondItem, thirdItem, notRequested),
+                Item::getItemRequestId,
+                ItemRequest::setItemsOnRequest);
+
+        assertThat(first.getItemsOnRequest(), equalTo(List.of(firstItem, thirdItem)));
+        assertThat(second.getItemsOnRequest(), equalTo(List.of(secondItem)));
+        assertThat(withoutItems.getItemsOnRequest(), empty());
+    }
+}